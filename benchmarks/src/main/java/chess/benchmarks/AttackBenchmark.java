@@ -0,0 +1,56 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times ChessBoard.attackersTo and isAttacked over every square, for both teams, across the corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackBenchmark {
+
+    private ChessBoard[] boards;
+
+    @Setup
+    public void setup()
+    {
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        for (int i = 0; i < games.length; i++)
+            boards[i] = games[i].getBoard();
+    }
+
+    @Benchmark
+    public void attackersTo(Blackhole blackhole)
+    {
+        for (ChessBoard board : boards)
+        {
+            for (int square = 0; square < 64; square++)
+            {
+                blackhole.consume(board.attackersTo(ChessGame.TeamColor.WHITE, square));
+                blackhole.consume(board.attackersTo(ChessGame.TeamColor.BLACK, square));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isAttacked(Blackhole blackhole)
+    {
+        for (ChessBoard board : boards)
+        {
+            for (int square = 0; square < 64; square++)
+            {
+                blackhole.consume(board.isAttacked(ChessGame.TeamColor.WHITE, square));
+                blackhole.consume(board.isAttacked(ChessGame.TeamColor.BLACK, square));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package chess.benchmarks;
+
+import chess.*;
+import chess.engine.Evaluator;
+import chess.engine.Network;
+import chess.engine.NnueEvaluator;
+import chess.engine.PieceSquareEvaluator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times playing each legal move, evaluating the position and taking the move back across the
+ * corpus, the way a search reaches its leaves. The NNUE evaluator is timed with the Vector API
+ * and again in a JVM without it, where it falls back to plain loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EvaluatorBenchmark {
+
+    @Param({"256"})
+    public int hidden;
+
+    private ChessBoard[] boards;
+    private MoveList[] moves;
+    private Evaluator[] pieceSquare;
+    private Evaluator[] nnue;
+
+    @Setup
+    public void setup()
+    {
+        ChessGame[] games = Positions.games();
+        Network network = Network.random(hidden, 1);
+        boards = new ChessBoard[games.length];
+        moves = new MoveList[games.length];
+        pieceSquare = new Evaluator[games.length];
+        nnue = new Evaluator[games.length];
+        for (int i = 0; i < games.length; i++)
+        {
+            boards[i] = new ChessBoard(games[i].getBoard());
+            boards[i].setSideToMove(games[i].getTeamTurn());
+            moves[i] = new MoveList();
+            MoveGenerator.generateLegalMoves(boards[i], boards[i].getSideToMove(), moves[i]);
+            pieceSquare[i] = new PieceSquareEvaluator();
+            nnue[i] = new NnueEvaluator(network); //one per board, so each keeps following its own
+            nnue[i].evaluate(boards[i]);
+        }
+    }
+
+    private void playAndEvaluate(Evaluator[] evaluators, Blackhole blackhole)
+    {
+        for (int i = 0; i < boards.length; i++)
+        {
+            ChessBoard board = boards[i];
+            for (int j = 0; j < moves[i].size(); j++)
+            {
+                board.makeMove(moves[i].get(j));
+                blackhole.consume(evaluators[i].evaluate(board));
+                board.unmakeMove();
+            }
+        }
+    }
+
+    @Benchmark
+    public void pieceSquare(Blackhole blackhole)
+    {
+        playAndEvaluate(pieceSquare, blackhole);
+    }
+
+    @Benchmark
+    public void nnue(Blackhole blackhole)
+    {
+        playAndEvaluate(nnue, blackhole);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void nnueScalar(Blackhole blackhole)
+    {
+        playAndEvaluate(nnue, blackhole);
+    }
+}
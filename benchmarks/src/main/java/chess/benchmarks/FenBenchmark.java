@@ -0,0 +1,69 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times loading every corpus position into one reused game from a String and from ASCII
+ * bytes, and writing each one back out, as bulk position ingestion would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    private final ChessGame game = new ChessGame();
+    private final StringBuilder out = new StringBuilder(128);
+    private byte[][] ascii;
+    private ChessBoard[] boards;
+
+    @Setup
+    public void setup()
+    {
+        ascii = new byte[Positions.MIDDLEGAMES.length][];
+        for (int i = 0; i < ascii.length; i++)
+            ascii[i] = Positions.MIDDLEGAMES[i].getBytes(StandardCharsets.US_ASCII);
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        for (int i = 0; i < games.length; i++)
+            boards[i] = games[i].getBoard();
+    }
+
+    @Benchmark
+    public void loadString(Blackhole blackhole)
+    {
+        for (String fen : Positions.MIDDLEGAMES)
+        {
+            game.loadFen(fen);
+            blackhole.consume(game.getBoard().zobristKey());
+        }
+    }
+
+    @Benchmark
+    public void loadBytes(Blackhole blackhole)
+    {
+        for (byte[] fen : ascii)
+        {
+            game.loadFen(fen, 0, fen.length);
+            blackhole.consume(game.getBoard().zobristKey());
+        }
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole)
+    {
+        for (ChessBoard board : boards)
+        {
+            out.setLength(0);
+            Fen.write(board, out);
+            blackhole.consume(out.length());
+        }
+    }
+}
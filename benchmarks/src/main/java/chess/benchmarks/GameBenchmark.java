@@ -0,0 +1,112 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the ChessGame operations the server runs on every move: check detection,
+ * move validation and making a move
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private ChessGame[] games;
+    private ChessBoard[] boards;
+    private ChessPosition[][] movers; //squares holding a piece of the team to move, per game
+    private ChessMove[] firstMoves; //one move per game for the team to move
+
+    @Setup
+    public void setup()
+    {
+        games = Positions.games();
+        boards = new ChessBoard[games.length];
+        movers = new ChessPosition[games.length][];
+        firstMoves = new ChessMove[games.length];
+        for (int i = 0; i < games.length; i++)
+        {
+            ChessGame game = games[i];
+            boards[i] = game.getBoard();
+
+            List<ChessPosition> squares = new ArrayList<>();
+            for (int row = 1; row <= 8; row++)
+            {
+                for (int col = 1; col <= 8; col++)
+                {
+                    ChessPosition position = ChessPosition.of(row, col);
+                    if (boards[i].getPiece(position).getTeamColor() == game.getTeamTurn())
+                        squares.add(position);
+                }
+            }
+            movers[i] = squares.toArray(new ChessPosition[0]);
+
+            for (ChessPosition square : movers[i])
+            {
+                if (firstMoves[i] == null && !game.validMoves(square).isEmpty())
+                    firstMoves[i] = game.validMoves(square).iterator().next();
+            }
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole)
+    {
+        for (ChessGame game : games)
+        {
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.WHITE));
+            blackhole.consume(game.isInCheck(ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole)
+    {
+        for (int i = 0; i < games.length; i++)
+        {
+            for (ChessPosition square : movers[i])
+                blackhole.consume(games[i].validMoves(square));
+        }
+    }
+
+    /**
+     * Board copying is part of this one (every move needs an untouched start position),
+     * so subtract {@link #copyBoard} to get the cost of makeMove alone
+     */
+    @Benchmark
+    public void makeMove(Blackhole blackhole)
+    {
+        for (int i = 0; i < games.length; i++)
+        {
+            ChessGame game = new ChessGame();
+            game.setBoard(new ChessBoard(boards[i]));
+            game.setTeamTurn(games[i].getTeamTurn());
+            try {
+                game.makeMove(firstMoves[i]);
+            } catch (InvalidMoveException e) {
+                blackhole.consume(e);
+            }
+            blackhole.consume(game.getBoard());
+        }
+    }
+
+    @Benchmark
+    public void copyBoard(Blackhole blackhole)
+    {
+        for (int i = 0; i < games.length; i++)
+        {
+            ChessGame game = new ChessGame();
+            game.setBoard(new ChessBoard(boards[i]));
+            game.setTeamTurn(games[i].getTeamTurn());
+            blackhole.consume(game.getBoard());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package chess.benchmarks;
+
+import chess.*;
+import chess.json.ChessJson;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times writing every corpus game to JSON and reading it back with the shared chess Gson,
+ * and writing it with plain reflective Gson for comparison, as HTTP and WebSocket responses would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private final Gson reflective = new Gson();
+    private ChessGame[] games;
+    private String[] json;
+
+    @Setup
+    public void setup()
+    {
+        games = Positions.games();
+        json = new String[games.length];
+        for (int i = 0; i < games.length; i++)
+            json[i] = ChessJson.GSON.toJson(games[i]);
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole)
+    {
+        for (ChessGame game : games)
+            blackhole.consume(ChessJson.GSON.toJson(game));
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole)
+    {
+        for (String text : json)
+            blackhole.consume(ChessJson.GSON.fromJson(text, ChessGame.class));
+    }
+
+    @Benchmark
+    public void writeReflective(Blackhole blackhole)
+    {
+        for (ChessGame game : games)
+            blackhole.consume(reflective.toJson(game));
+    }
+}
@@ -0,0 +1,87 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times writing every legal move in the corpus positions in SAN and UCI, and reading the SAN
+ * back, as PGN export and import would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+
+    private final StringBuilder out = new StringBuilder(16);
+    private final MoveList scratch = new MoveList(32);
+    private ChessBoard[] boards;
+    private MoveList[] moves;
+    private byte[][][] sans;
+
+    @Setup
+    public void setup()
+    {
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        moves = new MoveList[games.length];
+        sans = new byte[games.length][][];
+        for (int i = 0; i < games.length; i++)
+        {
+            boards[i] = games[i].getBoard();
+            moves[i] = new MoveList();
+            MoveGenerator.generateLegalMoves(boards[i], boards[i].getSideToMove(), moves[i]);
+            sans[i] = new byte[moves[i].size()][];
+            for (int m = 0; m < moves[i].size(); m++)
+            {
+                out.setLength(0);
+                Notation.writeSan(boards[i], moves[i].get(m), out);
+                sans[i][m] = out.toString().getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    @Benchmark
+    public void writeSan(Blackhole blackhole)
+    {
+        for (int i = 0; i < boards.length; i++)
+        {
+            for (int m = 0; m < moves[i].size(); m++)
+            {
+                out.setLength(0);
+                Notation.writeSan(boards[i], moves[i].get(m), out);
+                blackhole.consume(out.length());
+            }
+        }
+    }
+
+    @Benchmark
+    public void readSan(Blackhole blackhole)
+    {
+        for (int i = 0; i < boards.length; i++)
+        {
+            for (byte[] san : sans[i])
+                blackhole.consume(Notation.parseSan(boards[i], san, 0, san.length, scratch));
+        }
+    }
+
+    @Benchmark
+    public void writeUci(Blackhole blackhole)
+    {
+        for (MoveList list : moves)
+        {
+            for (int m = 0; m < list.size(); m++)
+            {
+                out.setLength(0);
+                Notation.writeUci(list.get(m), out);
+                blackhole.consume(out.length());
+            }
+        }
+    }
+}
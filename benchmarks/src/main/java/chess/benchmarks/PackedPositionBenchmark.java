@@ -0,0 +1,59 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times encoding every corpus position into one reused buffer and decoding them back into
+ * one reused board, as storing or sending positions in bulk would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedPositionBenchmark {
+
+    private final ChessBoard decoded = new ChessBoard();
+    private ChessBoard[] boards;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setup()
+    {
+        ChessGame[] games = Positions.games();
+        boards = new ChessBoard[games.length];
+        for (int i = 0; i < games.length; i++)
+            boards[i] = games[i].getBoard();
+        buffer = ByteBuffer.allocate(boards.length * PackedPosition.MAX_BYTES);
+        encoded = ByteBuffer.allocate(boards.length * PackedPosition.MAX_BYTES);
+        for (ChessBoard board : boards)
+            PackedPosition.encode(board, encoded);
+        encoded.flip();
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole)
+    {
+        buffer.clear();
+        for (ChessBoard board : boards)
+            blackhole.consume(PackedPosition.encode(board, buffer));
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole)
+    {
+        encoded.rewind();
+        for (int i = 0; i < boards.length; i++)
+        {
+            PackedPosition.decode(encoded, decoded);
+            blackhole.consume(decoded.zobristKey());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.MaterialEvaluator;
+import chess.engine.ParallelSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to depth for the Lazy SMP search over the corpus, by thread count; with perfect
+ * scaling the time would halve each time the threads double
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"7"})
+    public int depth;
+
+    private ChessGame[] games;
+    private ParallelSearch search;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        games = Positions.games();
+        search = new ParallelSearch(threads, 64, MaterialEvaluator::new);
+    }
+
+    //every run starts from an empty table, so one run doesn't speed up the next
+    @Setup(Level.Invocation)
+    public void clearTable()
+    {
+        search.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        search.close();
+    }
+
+    @Benchmark
+    public long timeToDepth()
+    {
+        long nodes = 0;
+        for (ChessGame game : games)
+            nodes += search.search(game, depth, 0, 0).getNodes();
+        return nodes;
+    }
+}
@@ -0,0 +1,83 @@
+package chess.benchmarks;
+
+import chess.*;
+import chess.pgn.PgnReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times reading and replaying a PGN file of {@link #GAMES} random games, in order from
+ * memory and in parallel from a file, as bulk game ingestion would
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PgnBenchmark {
+
+    static final int GAMES = 20_000; //about 20 MB, enough for several parallel chunks
+    private static final int MAX_PLIES = 160;
+
+    private ByteBuffer pgn;
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        //random legal games written in standard algebraic notation
+        Random random = new Random(22);
+        StringBuilder out = new StringBuilder();
+        MoveList moves = new MoveList();
+        for (int round = 1; round <= GAMES; round++)
+        {
+            ChessBoard board = ChessGame.fromFen(Fen.START).getBoard();
+            out.append("[Event \"Benchmark\"]\n[Round \"").append(round).append("\"]\n[Result \"*\"]\n\n");
+            for (int ply = 0; ply < MAX_PLIES; ply++)
+            {
+                moves.clear();
+                if (MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves) == 0)
+                    break;
+                int move = moves.get(random.nextInt(moves.size()));
+                if (ply % 2 == 0)
+                    out.append(ply / 2 + 1).append(". ");
+                Notation.writeSan(board, move, out);
+                out.append(ply % 16 == 15 ? '\n' : ' ');
+                board.makeMove(move);
+            }
+            out.append("*\n\n");
+        }
+        byte[] bytes = out.toString().getBytes(StandardCharsets.US_ASCII);
+        pgn = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        file = Files.createTempFile("games", ".pgn");
+        Files.write(file, bytes);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole)
+    {
+        blackhole.consume(PgnReader.read(pgn.duplicate(), game -> blackhole.consume(game.getPlies())));
+    }
+
+    @Benchmark
+    public void readParallel(Blackhole blackhole) throws IOException
+    {
+        //the handler runs on the pool's threads, so it's left empty and only the count is consumed
+        blackhole.consume(PgnReader.readParallel(file, game -> {}));
+    }
+}
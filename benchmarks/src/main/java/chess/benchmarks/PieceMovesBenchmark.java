@@ -0,0 +1,77 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times ChessPiece.pieceMoves for every piece of one type across the corpus, and the
+ * packed move generator underneath it writing into one reused move list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard[] boards;
+    private ChessPosition[] positions;
+    private int[] squares;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup()
+    {
+        List<ChessBoard> boardList = new ArrayList<>();
+        List<ChessPosition> positionList = new ArrayList<>();
+        for (ChessGame game : Positions.games())
+        {
+            ChessBoard board = game.getBoard();
+            for (int row = 1; row <= 8; row++)
+            {
+                for (int col = 1; col <= 8; col++)
+                {
+                    ChessPosition position = ChessPosition.of(row, col);
+                    if (board.getPiece(position).getPieceType() == type)
+                    {
+                        boardList.add(board);
+                        positionList.add(position);
+                    }
+                }
+            }
+        }
+        boards = boardList.toArray(new ChessBoard[0]);
+        positions = positionList.toArray(new ChessPosition[0]);
+        squares = new int[positions.length];
+        for (int i = 0; i < positions.length; i++)
+            squares[i] = (positions[i].getRow() - 1) * 8 + positions[i].getColumn() - 1;
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole)
+    {
+        for (int i = 0; i < boards.length; i++)
+            blackhole.consume(boards[i].getPiece(positions[i]).pieceMoves(boards[i], positions[i]));
+    }
+
+    @Benchmark
+    public int packedMoves()
+    {
+        int total = 0;
+        for (int i = 0; i < boards.length; i++)
+        {
+            moves.clear();
+            total += MoveGenerator.generatePieceMoves(boards[i], squares[i], moves);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,35 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+
+/**
+ * A fixed corpus of realistic middlegame positions shared by all the benchmarks
+ */
+public final class Positions {
+
+    static final String[] MIDDLEGAMES = {
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4",
+            "r1bq1rk1/ppp2ppp/2np1n2/2b1p3/2B1P3/2PP1N2/PP3PPP/RNBQ1RK1 w - - 0 7",
+            "rnbqkb1r/pp3ppp/4pn2/2pp4/2PP4/2N1PN2/PP3PPP/R1BQKB1R w KQkq - 0 5",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R2Q1RK1 w - - 0 10",
+            "r1bq1rk1/pp2ppbp/2np1np1/8/3NP3/2N1BP2/PPPQ2PP/R3KB1R w KQ - 3 9",
+            "2r2rk1/1bqnbppp/p2ppn2/1p6/3NP3/1BN1BP2/PPPQ2PP/2KR3R w - - 0 14",
+            "r4rk1/pp1n1ppp/2p1pn2/q2p4/2PP4/P1Q1PN2/1P1N1PPP/R3KB1R w KQ - 1 12",
+            "r2qr1k1/1b1nbppp/p2p1n2/1p2p3/3PP3/2P2N1P/PPB2PP1/R1BQRNK1 b - - 0 13",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+
+    private Positions() {}
+
+    /**
+     * @return a fresh game for every position in the corpus
+     */
+    static ChessGame[] games()
+    {
+        ChessGame[] games = new ChessGame[MIDDLEGAMES.length];
+        for (int i = 0; i < MIDDLEGAMES.length; i++)
+            games[i] = ChessGame.fromFen(MIDDLEGAMES[i]);
+        return games;
+    }
+}
@@ -0,0 +1,46 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Search;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a fixed-depth engine search over the corpus; the node counter reports how many
+ * positions per second the search gets through
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"4"})
+    public int depth;
+
+    private ChessGame[] games;
+    private Search search;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setup()
+    {
+        games = Positions.games();
+        search = new Search();
+    }
+
+    @Benchmark
+    public void search(Nodes counter)
+    {
+        for (ChessGame game : games)
+            counter.nodes += search.search(game, depth, 0, 0).getNodes();
+    }
+}
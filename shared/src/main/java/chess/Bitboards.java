@@ -0,0 +1,285 @@
+package chess;
+
+/**
+ * Precomputed attack tables for the bitboard board representation
+ * <p>
+ * Squares are numbered 0-63, starting with a1 (row 1, column 1) and going across
+ * each row, so bit 0 of a bitboard is a1 and bit 63 is h8. Sliding piece attacks
+ * use magic bitboards: the blockers on a piece's rays are multiplied by a magic
+ * number to give an index into a table of every possible attack set.
+ */
+public final class Bitboards {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    //relevant blocker squares for each square (edges left off, they never block anything further out)
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+
+    //found once with a random search for sparse numbers that give a collision-free index for every blocker set
+    private static final long[] ROOK_MAGICS = {
+            0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L, 0x0880080081041000L,
+            0x0200020020041008L, 0x2300040008010012L, 0x0C00283004008201L, 0x0180010000407A80L,
+            0x0168800080400020L, 0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+            0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L, 0x2002801145002280L,
+            0x0080860021004200L, 0x001000C009402002L, 0x00B0002004002800L, 0x100A808010020800L,
+            0x9400808004000800L, 0x0090808004000200L, 0x0000040010810208L, 0x2000020000448534L,
+            0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L, 0x4600240900100100L,
+            0x0804080100110004L, 0x0001000300080400L, 0x0004084400011002L, 0x0023040200008041L,
+            0x0580050043002080L, 0x0400804002802008L, 0x0001002001004010L, 0x0080200A02001040L,
+            0x600D480280802400L, 0x400B800201800C00L, 0x2408211004004208L, 0x0200211082000844L,
+            0x0020804010208000L, 0x5030004020104000L, 0xA042084080220010L, 0x4088080010008080L,
+            0x5002080100110004L, 0x2012002010040400L, 0x0040318210440008L, 0x0120941040820001L,
+            0x1000800100402100L, 0x0040002010004840L, 0x8108450020001900L, 0x0200204008120200L,
+            0x0080800C00180180L, 0x0885000400420900L, 0x230802011008C400L, 0x3801740891432200L,
+            0x0A00250212024082L, 0x0000882040001105L, 0x0042102082000A42L, 0xC401210810000501L,
+            0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L, 0x0048122980410402L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x1862221006220044L, 0x2104A14202020060L, 0x2804081220444001L, 0x2102408900010001L,
+            0x0002021000040002L, 0x08C3100805004300L, 0x1084040124920050L, 0x8900440043382010L,
+            0x2401410802140040L, 0x0901200454208020L, 0x0000090216020541L, 0x1283844040800804L,
+            0x0521840420000803L, 0x0800010402400C40L, 0x0000408E10100404L, 0x0009810048420800L,
+            0x2004211004286808L, 0x13080A1001380080L, 0x0008801004220020L, 0x0024000802480800L,
+            0x1461001190400401L, 0x0020400200500440L, 0x0003000409019000L, 0x000C20820D011802L,
+            0x000804002164100CL, 0x00048400A0011404L, 0x5018110308044100L, 0x0048A00804010020L,
+            0x0007840000802000L, 0x8808A20075004220L, 0x8014040000822100L, 0x110C03000E251101L,
+            0x0081094820202010L, 0x0008041000044100L, 0x00C1202808940800L, 0x8108100821040400L,
+            0x1240010010010041L, 0x0810004080011000L, 0x00A20C0401804A00L, 0x40014C0020050500L,
+            0x5805082012042480L, 0x2004022144031000L, 0x2082002024204808L, 0x0800004200800800L,
+            0x0410020204100A02L, 0x80C1204080804101L, 0x0010104E01800042L, 0x000800810C400208L,
+            0x100080B008201210L, 0x8000440605112101L, 0x000202008C440040L, 0x9004002210442200L,
+            0x2032014088222045L, 0x0C00202222C20000L, 0x0140040820A50100L, 0x0222104C29024018L,
+            0x0200110121202004L, 0x0800104200B00802L, 0x0000401424020801L, 0x4000000004208840L,
+            0x0802E00040104100L, 0x03000020A0424080L, 0x0011C00408188121L, 0x0848020822040013L
+    };
+
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+
+    //every square's attack sets live in one flat table, starting at that square's offset
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] ROOK_ATTACKS;
+    private static final long[] BISHOP_ATTACKS;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64]; //by team (white 0, black 1), then square
+
+    //squares strictly between two squares on a shared rank, file or diagonal, and the whole line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int rookSize = 0;
+        int bishopSize = 0;
+        for (int square = 0; square < 64; square++)
+        {
+            ROOK_MASKS[square] = relevantMask(square, ROOK_DIRECTIONS);
+            BISHOP_MASKS[square] = relevantMask(square, BISHOP_DIRECTIONS);
+            ROOK_SHIFTS[square] = 64 - Long.bitCount(ROOK_MASKS[square]);
+            BISHOP_SHIFTS[square] = 64 - Long.bitCount(BISHOP_MASKS[square]);
+            ROOK_OFFSETS[square] = rookSize;
+            BISHOP_OFFSETS[square] = bishopSize;
+            rookSize += 1 << Long.bitCount(ROOK_MASKS[square]);
+            bishopSize += 1 << Long.bitCount(BISHOP_MASKS[square]);
+        }
+        ROOK_ATTACKS = new long[rookSize];
+        BISHOP_ATTACKS = new long[bishopSize];
+
+        for (int square = 0; square < 64; square++)
+        {
+            fillTable(square, ROOK_MASKS[square], ROOK_MAGICS[square], ROOK_SHIFTS[square],
+                    ROOK_DIRECTIONS, ROOK_ATTACKS, ROOK_OFFSETS[square]);
+            fillTable(square, BISHOP_MASKS[square], BISHOP_MAGICS[square], BISHOP_SHIFTS[square],
+                    BISHOP_DIRECTIONS, BISHOP_ATTACKS, BISHOP_OFFSETS[square]);
+
+            KNIGHT_ATTACKS[square] = stepAttacks(square, new int[][]{{2, 1}, {1, 2}, {-1, 2}, {-2, 1},
+                    {-2, -1}, {-1, -2}, {1, -2}, {2, -1}});
+            KING_ATTACKS[square] = stepAttacks(square, new int[][]{{1, 0}, {1, 1}, {0, 1}, {-1, 1},
+                    {-1, 0}, {-1, -1}, {0, -1}, {1, -1}});
+            PAWN_ATTACKS[0][square] = stepAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[1][square] = stepAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+
+            fillLines(square, ROOK_DIRECTIONS);
+            fillLines(square, BISHOP_DIRECTIONS);
+        }
+    }
+
+    private Bitboards() {}
+
+    /**
+     * @return the squares a rook on the given square attacks, stopping at (and including) the first
+     * occupied square in each direction
+     */
+    public static long rookAttacks(int square, long occupied)
+    {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return the squares a bishop on the given square attacks, stopping at (and including) the first
+     * occupied square in each direction
+     */
+    public static long bishopAttacks(int square, long occupied)
+    {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return the squares a queen on the given square attacks
+     */
+    public static long queenAttacks(int square, long occupied)
+    {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares a knight on the given square attacks
+     */
+    public static long knightAttacks(int square)
+    {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a king on the given square attacks
+     */
+    public static long kingAttacks(int square)
+    {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param team 0 for a white pawn, 1 for a black pawn
+     * @return the squares a pawn of that team on the given square attacks
+     */
+    public static long pawnAttacks(int team, int square)
+    {
+        return PAWN_ATTACKS[team][square];
+    }
+
+    /**
+     * @return the squares strictly between the two squares if they share a rank, file or diagonal,
+     * otherwise an empty set
+     */
+    public static long between(int from, int to)
+    {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through both squares (including them),
+     * or an empty set if they aren't lined up
+     */
+    public static long line(int from, int to)
+    {
+        return LINE[from][to];
+    }
+
+    //walks out from the square along each direction, filling in the between and line sets for every square reached
+    private static void fillLines(int square, int[][] directions)
+    {
+        for (int[] direction : directions)
+        {
+            long ray = slowAttacks(square, 0L, direction);
+            long backwards = slowAttacks(square, 0L, new int[]{-direction[0], -direction[1]});
+            long full = ray | backwards | 1L << square;
+
+            long passed = 0L;
+            int r = square / 8 + direction[0];
+            int c = square % 8 + direction[1];
+            while (r >= 0 && r <= 7 && c >= 0 && c <= 7)
+            {
+                int to = r * 8 + c;
+                BETWEEN[square][to] = passed;
+                LINE[square][to] = full;
+                passed |= 1L << to;
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+    }
+
+    //the squares one step away in each of the given directions, if they're on the board
+    private static long stepAttacks(int square, int[][] steps)
+    {
+        long attacks = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] step : steps)
+        {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (r >= 0 && r <= 7 && c >= 0 && c <= 7)
+                attacks |= 1L << (r * 8 + c);
+        }
+        return attacks;
+    }
+
+    //the squares along the given rays, leaving off the last square of each ray
+    private static long relevantMask(int square, int[][] directions)
+    {
+        long mask = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] direction : directions)
+        {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            //only keep squares that still have another square after them in this direction
+            while (r + direction[0] >= 0 && r + direction[0] <= 7 && c + direction[1] >= 0 && c + direction[1] <= 7)
+            {
+                mask |= 1L << (r * 8 + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    //walks each ray one square at a time; only used to fill in the tables
+    private static long slowAttacks(int square, long occupied, int[]... directions)
+    {
+        long attacks = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] direction : directions)
+        {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while (r >= 0 && r <= 7 && c >= 0 && c <= 7)
+            {
+                long bit = 1L << (r * 8 + c);
+                attacks |= bit;
+                if ((occupied & bit) != 0)
+                    break; //the blocker is attacked, but nothing behind it
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    //stores the attacks for every subset of the mask at the slot its magic index points to
+    private static void fillTable(int square, long mask, long magic, int shift, int[][] directions, long[] table, int offset)
+    {
+        int size = 1 << Long.bitCount(mask);
+        boolean[] filled = new boolean[size];
+        long blockers = 0L;
+        for (int i = 0; i < size; i++)
+        {
+            long attacks = slowAttacks(square, blockers, directions);
+            int index = (int) ((blockers * magic) >>> shift);
+            if (filled[index] && table[offset + index] != attacks)
+                throw new RuntimeException("magic number for square " + square + " doesn't work");
+            table[offset + index] = attacks;
+            filled[index] = true;
+            blockers = (blockers - mask) & mask; //walks through every subset of the mask
+        }
+    }
+}
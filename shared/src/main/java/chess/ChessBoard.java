@@ -11,17 +11,113 @@ import java.util.Objects;
  */
 public class ChessBoard {
 
-    ChessPosition[][] chessBoard = new ChessPosition[9][9]; //creates the chess board, separated into 8 rows and columns (with a ghostly zeroeth rank and file)
+    //one bitboard per team and piece type, indexed by pieceCode (bit 0 is a1, bit 7 is h1, bit 63 is h8)
+    long[] pieceBoards = new long[12];
+    long[] teamBoards = new long[2]; //every square occupied by white (0) or black (1)
+    long occupied = 0L; //every occupied square
+    byte[] mailbox = new byte[64]; //piece code on each square, EMPTY if there's nothing there
+
+    //the squares holding each piece code in no particular order, so the kings and other pieces can be found without a scan
+    byte[][] pieceLists = new byte[12][64];
+    int[] pieceCounts = new int[12];
+    byte[] listIndex = new byte[64]; //where the piece on each square sits in its piece list
     ChessMove lastMove = null;
 
+    ChessGame.TeamColor sideToMove = ChessGame.TeamColor.WHITE;
+    int castlingRights = ALL_CASTLING; //rights only count while the king and rook are still on their home squares
+    int enPassantSquare = -1; //square a pawn can capture onto en passant, -1 if none
+    int halfmoveClock = 0; //moves since the last capture or pawn move, for the fifty move rule
+    int fullmoveNumber = 1; //starts at 1 and goes up after each black move
+
+    //undo stack for unmakeMove: the move made, the state it replaced (see packUndo) and the key before it
+    int[] undoMoves = new int[256];
+    long[] undoStates = new long[256];
+    long[] undoKeys = new long[256];
+    int undoSize = 0;
+
+    //tapered evaluation kept up to date as pieces come and go (see PieceSquareTables), positive for white
+    int middlegameScore = 0;
+    int endgameScore = 0;
+    int phase = 0;
+
+    PieceListener listener = null; //told about each piece put on or taken off, if there is one
+
+    int[] exchangeGains = new int[32]; //scratch space for staticExchange, one entry per capture in the sequence
+
+    long placementKey = 0L; //Zobrist key of the pieces alone
+    long pawnKey = 0L; //Zobrist key of the pawns alone
+    long stateKey = Zobrist.CASTLING[ALL_CASTLING]; //Zobrist key of the side to move, castling rights and en passant file
+
+    static final int EMPTY = 12; //piece code for an empty square
+
+    //piece type ordinals, for indexing pieceBoards without going through the enum
+    private static final int KING = 0;
+    private static final int QUEEN = 1;
+    private static final int BISHOP = 2;
+    private static final int KNIGHT = 3;
+    private static final int ROOK = 4;
+    private static final int PAWN = 5;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    public static final int MAX_PHASE = PieceSquareTables.MAX_PHASE; //see gamePhase
+
+    //piece values for exchange evaluation, in PieceType order; the king outweighs anything it could win
+    private static final int[] EXCHANGE_VALUES = {20000, 900, 330, 320, 500, 100};
+    private static final int[] EXCHANGE_ORDER = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING}; //cheapest first
+
+    //castling rights kept when a piece moves from or to each square (moving a king or rook, or taking a rook, loses rights)
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[0] = ALL_CASTLING & ~WHITE_QUEENSIDE; //a1
+        CASTLING_KEPT[4] = ALL_CASTLING & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE); //e1
+        CASTLING_KEPT[7] = ALL_CASTLING & ~WHITE_KINGSIDE; //h1
+        CASTLING_KEPT[56] = ALL_CASTLING & ~BLACK_QUEENSIDE; //a8
+        CASTLING_KEPT[60] = ALL_CASTLING & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE); //e8
+        CASTLING_KEPT[63] = ALL_CASTLING & ~BLACK_KINGSIDE; //h8
+    }
+
     public ChessBoard() {
-        for (int i = 1; i <= 8; i++) // rows (white to black)
-        {
-            for (int j = 1; j <= 8; j++) // columns (q. rook to k. rook)
-            {
-                chessBoard[i][j] = new ChessPosition(i, j);
-            }
-        }
+        Arrays.fill(mailbox, (byte) EMPTY);
+    }
+
+    /**
+     * Makes an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        pieceBoards = other.pieceBoards.clone();
+        teamBoards = other.teamBoards.clone();
+        occupied = other.occupied;
+        mailbox = other.mailbox.clone();
+        pieceLists = new byte[12][];
+        for (int code = 0; code < 12; code++)
+            pieceLists[code] = other.pieceLists[code].clone();
+        pieceCounts = other.pieceCounts.clone();
+        listIndex = other.listIndex.clone();
+        lastMove = other.lastMove;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        placementKey = other.placementKey;
+        pawnKey = other.pawnKey;
+        stateKey = other.stateKey;
+        undoMoves = other.undoMoves.clone();
+        undoStates = other.undoStates.clone();
+        undoKeys = other.undoKeys.clone();
+        undoSize = other.undoSize;
     }
 
     /**
@@ -31,9 +127,10 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        int row = position.getRow();
-        int column = position.getColumn();
-        chessBoard[row][column].setPiece(piece); //sets the piece on the chess position indicated.
+        int square = square(position.getRow(), position.getColumn());
+        clearSquare(square); //a piece added on top of another one replaces it
+        if (piece != null && piece.getPieceType() != ChessPiece.PieceType.NOTHING)
+            setSquare(square, pieceCode(piece.getTeamColor(), piece.getPieceType()));
     }
 
     /**
@@ -46,7 +143,7 @@ public class ChessBoard {
     public ChessPiece getPiece(ChessPosition position) {
         int row = position.getRow();
         int column = position.getColumn();
-        return chessBoard[row][column].getPiece();
+        return pieceAt(row, column);
 
     }
 
@@ -56,48 +153,55 @@ public class ChessBoard {
      */
     public void resetBoard() {
 
-        //clears the board of all pieces
-        for (int i = 1; i <= 8; i++) // rows (white to black)
-        {
-            for (int j = 1; j <= 8; j++) // columns (q. rook to k. rook)
-            {
-                chessBoard[i][j].removePiece();
-            }
-        }
+        clear();
+
+        //the back rank, from the queen's rook to the king's rook
+        ChessPiece.PieceType[] backRank = {ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
 
         //fills the 2nd and 7th ranks with pawns and the 1st and 8th rank with pieces
         for (int i = 1; i <= 8; i++) // columns (q. rook to k. rook)
         {
-            //fills the 2nd and 7th ranks with pawns
-            chessBoard[2][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            chessBoard[7][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-
-            //fills in the 1st and 8th ranks with pieces
-            if (i == 1 || i == 8) {
-                chessBoard[1][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-                chessBoard[8][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-            }
-            else if (i == 2 || i == 7){
-                chessBoard[1][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-                chessBoard[8][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-            }
-            else if (i == 3 || i == 6){
-                chessBoard[1][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-                chessBoard[8][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-            }
-            else if (i == 4){
-                chessBoard[1][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-                chessBoard[8][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-            }
-            else if (i == 5){
-                chessBoard[1][i].setPiece(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-                chessBoard[8][i].setPiece(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-            }
-
+            setSquare(square(2, i), pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setSquare(square(7, i), pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setSquare(square(1, i), pieceCode(ChessGame.TeamColor.WHITE, backRank[i - 1]));
+            setSquare(square(8, i), pieceCode(ChessGame.TeamColor.BLACK, backRank[i - 1]));
         }
 
 
     }
+
+    //takes every piece off and goes back to the starting state: white to move, all castling rights, no history
+    void clear()
+    {
+        //takes the pieces off one at a time first, so the listener hears about each one
+        if (listener != null)
+        {
+            while (occupied != 0)
+                clearSquare(Long.numberOfTrailingZeros(occupied));
+        }
+
+        //clears the board of all pieces
+        Arrays.fill(pieceBoards, 0L);
+        Arrays.fill(teamBoards, 0L);
+        Arrays.fill(mailbox, (byte) EMPTY);
+        Arrays.fill(pieceCounts, 0);
+        occupied = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        placementKey = 0L;
+        pawnKey = 0L;
+        setSideToMove(ChessGame.TeamColor.WHITE);
+        setCastlingRights(ALL_CASTLING);
+        setEnPassantSquare(-1);
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        undoSize = 0;
+        lastMove = null;
+    }
+
     public ChessMove getLastMove()
     {
         return lastMove;
@@ -108,351 +212,584 @@ public class ChessBoard {
         int row = position.getRow();
         int col = position.getColumn();
 
-        chessBoard[row][col].removePiece();
+        clearSquare(square(row, col));
     }
 
-    //checks if a square is under attack (useful for legal king moves)
-    public String squareAttacked (ChessGame.TeamColor attacker, ChessPosition attackedSquare)
+    //square index (0-63) of a row and column, both counted from 1
+    static int square(int row, int col)
     {
+        return (row - 1) * 8 + (col - 1);
+    }
 
-        int row = attackedSquare.getRow();
-        int col = attackedSquare.getColumn();
-        StringBuilder attackerSquare = new StringBuilder();
-        ChessPiece piece = chessBoard[row][col].getPiece();
+    //index into pieceBoards for a team and piece type; white pieces come first
+    static int pieceCode(ChessGame.TeamColor color, ChessPiece.PieceType type)
+    {
+        if (type == ChessPiece.PieceType.NOTHING || color == ChessGame.TeamColor.NOTHING)
+            return EMPTY;
+        return color.ordinal() * 6 + type.ordinal();
+    }
 
-        if (attacker == ChessGame.TeamColor.WHITE)
-        {
-            //checks if there's a white pawn attacking the square
-            ChessPiece pieceTested = new ChessPiece(attacker, chess.ChessPiece.PieceType.PAWN);
-            if (row > 0 && col > 0) { //makes sure the pawn checked for is within bounds
-                if (Objects.equals(chessBoard[row - 1][col - 1].getPiece(), pieceTested)) {
-                    attackerSquare.append(row-1);
-                    attackerSquare.append(col-1);
-                }
-            }
-            if (row > 0 && col < 7) { // makes sure the pawn checked for is within bounds
-                if (Objects.equals(chessBoard[row - 1][col + 1].getPiece(), pieceTested)) {
+    //the shared piece for a piece code (EMPTY gives the NOTHING piece)
+    static ChessPiece piece(int code)
+    {
+        return ChessPiece.of(code);
+    }
 
-                    attackerSquare.append(row-1);
-                    attackerSquare.append(col+1);
-                }
-            }
-        }
+    //the piece on a row and column, or the NOTHING piece if the square is empty or off the board
+    ChessPiece pieceAt(int row, int col)
+    {
+        if (row < 1 || row > 8 || col < 1 || col > 8)
+            return ChessPiece.of(EMPTY);
+        return ChessPiece.of(mailbox[square(row, col)]);
+    }
+
+    //puts a piece on an empty square, keeping the bitboards and mailbox in step
+    void setSquare(int square, int code)
+    {
+        long bit = 1L << square;
+        pieceBoards[code] |= bit;
+        teamBoards[code / 6] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) code;
+        listIndex[square] = (byte) pieceCounts[code];
+        pieceLists[code][pieceCounts[code]++] = (byte) square;
+        middlegameScore += PieceSquareTables.MIDDLEGAME[code][square];
+        endgameScore += PieceSquareTables.ENDGAME[code][square];
+        phase += PieceSquareTables.PHASE[code];
+        placementKey ^= Zobrist.PIECE_SQUARE[code][square];
+        pawnKey ^= Zobrist.PAWN_SQUARE[code][square];
+        if (listener != null)
+            listener.pieceAdded(code, square);
+    }
+
+    //takes whatever piece is on a square off the board
+    void clearSquare(int square)
+    {
+        int code = mailbox[square];
+        if (code == EMPTY)
+            return;
+        long bit = 1L << square;
+        pieceBoards[code] &= ~bit;
+        teamBoards[code / 6] &= ~bit;
+        occupied &= ~bit;
+        mailbox[square] = (byte) EMPTY;
+        //the last piece in the list fills the gap
+        int last = pieceLists[code][--pieceCounts[code]];
+        pieceLists[code][listIndex[square]] = (byte) last;
+        listIndex[last] = listIndex[square];
+        middlegameScore -= PieceSquareTables.MIDDLEGAME[code][square];
+        endgameScore -= PieceSquareTables.ENDGAME[code][square];
+        phase -= PieceSquareTables.PHASE[code];
+        placementKey ^= Zobrist.PIECE_SQUARE[code][square];
+        pawnKey ^= Zobrist.PAWN_SQUARE[code][square];
+        if (listener != null)
+            listener.pieceRemoved(code, square);
+    }
 
-        else if (attacker == ChessGame.TeamColor.BLACK)
+    /**
+     * Sets what to tell about every piece put on or taken off this board from now on, replacing
+     * any listener already set. It's told about the pieces already on the board right away.
+     * Copies of the board don't keep the listener.
+     *
+     * @param listener the listener, or null to stop telling anyone
+     */
+    public void setPieceListener(PieceListener listener)
+    {
+        this.listener = listener;
+        if (listener == null)
+            return;
+        for (int code = 0; code < 12; code++)
         {
-            //checks if there's a black pawn attacking the square
-            ChessPiece pieceTested = new ChessPiece(attacker, chess.ChessPiece.PieceType.PAWN);
-            if (row < 8 && col > 1) { //makes sure the pawn checked for is within bounds
-                if (Objects.equals(chessBoard[row + 1][col - 1].getPiece(), pieceTested)) {
-                    attackerSquare.append(row+1);
-                    attackerSquare.append(col-1);
-                }
-            }
-            if (row < 8 && col < 8) { // makes sure the pawn checked for is within bounds
-                if (Objects.equals(chessBoard[row + 1][col + 1].getPiece(), pieceTested)) {
-                    attackerSquare.append(row+1);
-                    attackerSquare.append(col+1);
-                }
-            }
+            for (int i = 0; i < pieceCounts[code]; i++)
+                listener.pieceAdded(code, pieceLists[code][i]);
         }
-        attackerSquare.append(dAttacker(attacker, attackedSquare)); //checks if there's a bishop or queen attacking from a diagonal
-        attackerSquare.append(cAttacker(attacker, attackedSquare)); //checks if there's a rook or queen attacking from a rank or file
+    }
 
-        //checks if there's a knight that can attack from any l-shape spot
-        attackerSquare.append(kAttacker(attacker, row+2, col+1));
-        attackerSquare.append(kAttacker(attacker, row+1, col+2));
-        attackerSquare.append(kAttacker(attacker, row-1, col+2));
-        attackerSquare.append(kAttacker(attacker, row-2, col+1));
-        attackerSquare.append(kAttacker(attacker, row-2, col-1));
-        attackerSquare.append(kAttacker(attacker, row-1, col-2));
-        attackerSquare.append(kAttacker(attacker, row+1, col-2));
-        attackerSquare.append(kAttacker(attacker, row+2, col-1));
+    /**
+     * The material and piece-square score, blended between its middlegame and endgame values by
+     * how much material is left. It's kept up to date as pieces move, so this is free.
+     *
+     * @return the score in centipawns, positive when white is ahead
+     */
+    public int pieceSquareScore()
+    {
+        int middlegamePhase = gamePhase();
+        return (middlegameScore * middlegamePhase + endgameScore * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+    }
 
-        attackerSquare.append(kingAttacker(attacker, attackedSquare));
+    /**
+     * @return how much of the middlegame is left, from {@value #MAX_PHASE} with every piece
+     * still on the board down to 0 with only kings and pawns
+     */
+    public int gamePhase()
+    {
+        return Math.min(phase, MAX_PHASE); //early promotions can push the phase past the top
+    }
 
-        return attackerSquare.toString();
+    /**
+     * @return a bitboard of every square holding that team's pieces of that type (bit 0 is a1)
+     */
+    public long pieces(ChessGame.TeamColor team, ChessPiece.PieceType type)
+    {
+        return pieceBoards[team.ordinal() * 6 + type.ordinal()];
+    }
 
+    /**
+     * @return the square (0-63, a1 is 0) of the team's king, or -1 if it has no king on the board
+     */
+    public int kingSquare(ChessGame.TeamColor team)
+    {
+        int code = team.ordinal() * 6 + ChessPiece.PieceType.KING.ordinal();
+        return pieceCounts[code] == 0 ? -1 : pieceLists[code][0];
     }
 
-    private String dAttacker (ChessGame.TeamColor attacker, ChessPosition attackedSquare)
+    //every bishop and knight on the board, of either team
+    long minorPieces()
     {
-        int row = attackedSquare.getRow();
-        int col = attackedSquare.getColumn();
-        StringBuilder attackerSquare = new StringBuilder();
+        return pieceBoards[BISHOP] | pieceBoards[KNIGHT] | pieceBoards[6 + BISHOP] | pieceBoards[6 + KNIGHT];
+    }
 
-        //checks if there's a bishop or queen attacking the square
-        chess.ChessPiece pieceTested = new ChessPiece(attacker, chess.ChessPiece.PieceType.BISHOP);
-        chess.ChessPiece pieceTested2 = new ChessPiece(attacker, chess.ChessPiece.PieceType.QUEEN);
-        boolean legal = true;
-        int distance = 0; //distance diagonally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (row+distance >= 9 || col+distance >= 9) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row+distance][col+distance].getPiece(); //gets the piece on the square targeted
-                //if the piece on the square is an enemy bishop or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row+distance);
-                    attackerSquare.append(col+distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
+    //how many pieces with the given code are on the board
+    int pieceCount(int code)
+    {
+        return pieceCounts[code];
+    }
 
-        legal = true;
-        distance = 0; //distance diagonally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (row-distance <= 0 || col+distance >= 9) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row-distance][col+distance].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy bishop or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row-distance);
-                    attackerSquare.append(col+distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
+    //the square of the index-th piece with the given code
+    int pieceSquare(int code, int index)
+    {
+        return pieceLists[code][index];
+    }
+
+    /**
+     * @return the 64-bit Zobrist key of this position: the pieces, side to move, castling
+     * rights and en passant square. It is kept up to date as the board changes, so this is free.
+     */
+    public long zobristKey()
+    {
+        return placementKey ^ stateKey;
+    }
 
-        legal = true;
-        distance = 0; //distance diagonally from the square
-        while (legal) //iterates through squares away from checked square
+    /**
+     * @return a Zobrist key of just the pawns, so anything worked out from the pawns alone can
+     * be cached by it. It is kept up to date as the board changes, so this is free.
+     */
+    public long pawnKey()
+    {
+        return pawnKey;
+    }
+
+    //rebuilds the pawn key from nothing; only for checking the incremental one
+    long computePawnKey()
+    {
+        long key = 0L;
+        for (int square = 0; square < 64; square++)
         {
-            distance++;//increments the distance from the square
-            if (row-distance <= 0 || col-distance <= 0) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row-distance][col-distance].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy bishop or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row-distance);
-                    attackerSquare.append(col-distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
+            if (mailbox[square] != EMPTY)
+                key ^= Zobrist.PAWN_SQUARE[mailbox[square]][square];
         }
+        return key;
+    }
 
-        legal = true;
-        distance = 0; //distance diagonally from the square
-        while (legal) //iterates through squares away from checked square
+    //rebuilds the Zobrist key from nothing; only for checking the incremental one
+    long computeZobristKey()
+    {
+        long key = 0L;
+        for (int square = 0; square < 64; square++)
         {
-            distance++;//increments the distance from the square
-            if (row+distance >= 9 || col-distance <= 0) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row+distance][col-distance].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy bishop or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row+distance);
-                    attackerSquare.append(col-distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
+            if (mailbox[square] != EMPTY)
+                key ^= Zobrist.PIECE_SQUARE[mailbox[square]][square];
         }
-        return attackerSquare.toString();
+        if (sideToMove == ChessGame.TeamColor.BLACK)
+            key ^= Zobrist.BLACK_TO_MOVE;
+        key ^= Zobrist.CASTLING[castlingRights];
+        if (enPassantSquare >= 0)
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        return key;
     }
 
-    private String cAttacker (ChessGame.TeamColor attacker, ChessPosition attackedSquare) {
-        int row = attackedSquare.getRow();
-        int col = attackedSquare.getColumn();
-        StringBuilder attackerSquare = new StringBuilder();
+    /**
+     * @return the team whose turn it is in this position
+     */
+    public ChessGame.TeamColor getSideToMove()
+    {
+        return sideToMove;
+    }
 
-        //checks if there's a rook or queen attacking the square
-        chess.ChessPiece pieceTested = new ChessPiece(attacker, chess.ChessPiece.PieceType.ROOK);
-        chess.ChessPiece pieceTested2 = new ChessPiece(attacker, chess.ChessPiece.PieceType.QUEEN);
-        boolean legal = true;
-        int distance = 0; //distance cardinally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (row + distance >= 9) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            } else {
-                ChessPiece test = chessBoard[row + distance][col].getPiece(); //gets the piece on the square targeted
-                //if the piece on the square is an enemy rook or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row+distance);
-                    attackerSquare.append(col);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
+    public void setSideToMove(ChessGame.TeamColor team)
+    {
+        if ((team == ChessGame.TeamColor.BLACK) != (sideToMove == ChessGame.TeamColor.BLACK))
+            stateKey ^= Zobrist.BLACK_TO_MOVE;
+        sideToMove = team;
+    }
 
-        legal = true;
-        distance = 0; //distance cardinally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (col+distance >= 9) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row][col+distance].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy rook or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row);
-                    attackerSquare.append(col+distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
+    /**
+     * @return the castling rights still available, as WHITE_KINGSIDE, WHITE_QUEENSIDE,
+     * BLACK_KINGSIDE and BLACK_QUEENSIDE or'd together
+     */
+    public int getCastlingRights()
+    {
+        return castlingRights;
+    }
 
-        legal = true;
-        distance = 0; //distance cardinally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (row-distance <= 0) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row-distance][col].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy rook or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row-distance);
-                    attackerSquare.append(col);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
-        legal = true;
-        distance = 0; //distance cardinally from the square
-        while (legal) //iterates through squares away from checked square
-        {
-            distance++;//increments the distance from the square
-            if (col-distance <= 0) //makes sure the move isn't out of bounds
-            {
-                legal = false;
-            }
-            else {
-                ChessPiece test = chessBoard[row][col-distance].getPiece(); //gets the piece on the next square
-                //if the piece on the square is an enemy rook or queen
-                if (Objects.equals(test, pieceTested) || Objects.equals(test, pieceTested2)) {
-                    attackerSquare.append(row);
-                    attackerSquare.append(col-distance);
-                    legal = false;
-                } else if (test.getPieceType() != ChessPiece.PieceType.NOTHING)
-                    legal = false; //the piece on that square can't attack the square, and blocks more distant attackers
-            }
-        }
-        return attackerSquare.toString();
+    public void setCastlingRights(int rights)
+    {
+        stateKey ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.CASTLING[rights];
+        castlingRights = rights;
     }
 
-    private String kAttacker (ChessGame.TeamColor attacker, int finalRow, int finalCol) //works for knights
+    /**
+     * @return the square (0-63) a pawn could capture onto en passant, or -1 if there isn't one
+     */
+    public int getEnPassantSquare()
     {
-        if (finalRow < 9 && finalCol < 9 && finalRow > 0 && finalCol > 0) //makes sure the move is not out of bounds
-        {
-            ChessPiece test = chessBoard[finalRow][finalCol].getPiece(); //gets the piece on the square targeted
-            if (test.getPieceType() == ChessPiece.PieceType.KNIGHT && test.getTeamColor() == attacker)
-            {
-                //checks if there's a knight on the attacking square
-                return String.valueOf(finalRow) + finalCol;
+        return enPassantSquare;
+    }
 
-            }
-            else
-                return "";
-        }
-        else
-            return ""; //no knight can attack from out of bounds
+    public void setEnPassantSquare(int square)
+    {
+        if (enPassantSquare >= 0)
+            stateKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        if (square >= 0)
+            stateKey ^= Zobrist.EN_PASSANT_FILE[square % 8];
+        enPassantSquare = square;
     }
 
-    private String kingAttacker (ChessGame.TeamColor attacker, ChessPosition attackedSquare) //works for kings
+    /**
+     * @return moves made since the last capture or pawn move
+     */
+    public int getHalfmoveClock()
     {
-        int row = attackedSquare.getRow();
-        int col = attackedSquare.getColumn();
-        chess.ChessPiece testPiece = new chess.ChessPiece(attacker, ChessPiece.PieceType.KING);
+        return halfmoveClock;
+    }
 
-        StringBuilder attackerSquare = new StringBuilder();
+    public void setHalfmoveClock(int halfmoves)
+    {
+        halfmoveClock = halfmoves;
+    }
 
-        boolean northFine = true;
-        boolean eastFine = true;
-        boolean southFine = true;
-        boolean westFine = true;
-        if (attackedSquare.getRow() == 8) //checks if the square attacked is at the top of the board or not
-            northFine = false;
-        if (attackedSquare.getColumn() == 8) //checks if the square attacked is on the right side of the board or not
-            eastFine = false;
-        if (attackedSquare.getRow() == 1) //checks if the square attacked is at the bottom of the board or not
-            southFine = false;
-        if (attackedSquare.getColumn() == 1) //checks if the square attacked is on the left side of the board or not
-            westFine = false;
+    /**
+     * @return the move number, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber()
+    {
+        return fullmoveNumber;
+    }
 
-        if (northFine && Objects.equals(chessBoard[row+1][col].getPiece(), testPiece))
+    public void setFullmoveNumber(int moveNumber)
+    {
+        fullmoveNumber = moveNumber;
+    }
+
+    /**
+     * Plays a packed move (see {@link PackedMove}) on this board, handling captures, en passant,
+     * castling and promotion, and pushes what's needed to take it back onto the undo stack.
+     * The move isn't checked for legality.
+     *
+     * @param move a move generated for the side to move in this position
+     */
+    public void makeMove(int move)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = mailbox[from];
+        int team = moved / 6;
+
+        //en passant takes the pawn beside the mover, not one on the target square
+        int capturedSquare = to;
+        if ((move & PackedMove.EN_PASSANT) != 0)
+            capturedSquare = team == 0 ? to - 8 : to + 8;
+        int captured = mailbox[capturedSquare];
+
+        pushUndo(move, packUndo(captured, castlingRights, enPassantSquare, halfmoveClock));
+
+        clearSquare(capturedSquare);
+        clearSquare(from);
+        int promotion = PackedMove.promotion(move);
+        setSquare(to, promotion == 0 ? moved : team * 6 + promotion);
+
+        //castling also moves the rook over the king
+        if ((move & PackedMove.CASTLE) != 0)
         {
-            //checks top square for king
-            attackerSquare.append(row+1);
-            attackerSquare.append(col);
-            return attackerSquare.toString();
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            int rook = mailbox[rookFrom];
+            clearSquare(rookFrom);
+            setSquare(rookTo, rook);
         }
-        if (northFine && eastFine && Objects.equals(chessBoard[row+1][col+1].getPiece(), testPiece)) //checks top right for king
+
+        setCastlingRights(castlingRights & CASTLING_KEPT[from] & CASTLING_KEPT[to]);
+        setEnPassantSquare((move & PackedMove.DOUBLE_PUSH) != 0 ? (from + to) / 2 : -1);
+        if (moved % 6 == ChessPiece.PieceType.PAWN.ordinal() || captured != EMPTY)
+            halfmoveClock = 0;
+        else
+            halfmoveClock++;
+        if (team == 1)
+            fullmoveNumber++;
+        setSideToMove(team == 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}, restoring the board exactly
+     */
+    public void unmakeMove()
+    {
+        undoSize--;
+        int move = undoMoves[undoSize];
+        long undo = undoStates[undoSize];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int team = mailbox[to] / 6;
+
+        //castling puts the rook back in the corner
+        if ((move & PackedMove.CASTLE) != 0)
         {
-            attackerSquare.append(row+1);
-            attackerSquare.append(col+1);
-            return attackerSquare.toString();
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            int rook = mailbox[rookTo];
+            clearSquare(rookTo);
+            setSquare(rookFrom, rook);
         }
-        if (eastFine && Objects.equals(chessBoard[row][col+1].getPiece(), testPiece)) //checks right square for king
+
+        //a promoted piece goes back to being a pawn
+        int moved = PackedMove.promotion(move) == 0 ? mailbox[to] : team * 6 + ChessPiece.PieceType.PAWN.ordinal();
+        clearSquare(to);
+        setSquare(from, moved);
+
+        int captured = (int) (undo & 0xF);
+        if (captured != EMPTY)
         {
-            attackerSquare.append(row);
-            attackerSquare.append(col+1);
-            return attackerSquare.toString();
+            int capturedSquare = to;
+            if ((move & PackedMove.EN_PASSANT) != 0)
+                capturedSquare = team == 0 ? to - 8 : to + 8;
+            setSquare(capturedSquare, captured);
         }
-        if (eastFine && southFine && Objects.equals(chessBoard[row-1][col+1].getPiece(), testPiece)) //checks bottom right for king
+
+        setCastlingRights((int) ((undo >>> 4) & 0xF));
+        setEnPassantSquare((int) ((undo >>> 8) & 0x7F) - 1);
+        halfmoveClock = (int) (undo >>> 15);
+        if (team == 1)
+            fullmoveNumber--;
+        setSideToMove(team == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+    }
+
+    /**
+     * Checks if the current position already came up since the last capture or pawn move
+     * (with the same side to move), using the keys saved on the undo stack
+     *
+     * @return whether this position is a repeat
+     */
+    public boolean isRepetition()
+    {
+        long key = zobristKey();
+        int earliest = Math.max(0, undoSize - halfmoveClock); //nothing before a capture or pawn move can come back
+        for (int i = undoSize - 2; i >= earliest; i -= 2)
         {
-            attackerSquare.append(row-1);
-            attackerSquare.append(col+1);
-            return attackerSquare.toString();
+            if (undoKeys[i] == key)
+                return true;
         }
-        if (southFine && Objects.equals(chessBoard[row-1][col].getPiece(), testPiece)) //checks bottom square for king
+        return false;
+    }
+
+    /**
+     * @return how many moves are on the undo stack
+     */
+    public int undoDepth()
+    {
+        return undoSize;
+    }
+
+    //captured piece in bits 0-3, castling rights in 4-7, en passant square + 1 in 8-14, halfmove clock from 15 up
+    private static long packUndo(int captured, int castling, int enPassant, int halfmoves)
+    {
+        return captured | ((long) castling << 4) | ((long) (enPassant + 1) << 8) | ((long) halfmoves << 15);
+    }
+
+    private void pushUndo(int move, long state)
+    {
+        if (undoSize == undoMoves.length)
         {
-            attackerSquare.append(row-1);
-            attackerSquare.append(col);
-            return attackerSquare.toString();
+            undoMoves = Arrays.copyOf(undoMoves, undoSize * 2);
+            undoStates = Arrays.copyOf(undoStates, undoSize * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoSize * 2);
         }
-        if (southFine && westFine && Objects.equals(chessBoard[row-1][col-1].getPiece(), testPiece)) //checks bottom left for king
+        undoMoves[undoSize] = move;
+        undoStates[undoSize] = state;
+        undoKeys[undoSize] = zobristKey();
+        undoSize++;
+    }
+
+    /**
+     * Finds every piece of the attacking team that attacks a square
+     *
+     * @param attacker the team doing the attacking
+     * @param attackedSquare the square being attacked
+     * @return a bitboard of the attacking pieces' squares (bit 0 is a1), 0 if the square isn't attacked
+     */
+    public long attackersTo(ChessGame.TeamColor attacker, ChessPosition attackedSquare)
+    {
+        return attackersTo(attacker.ordinal(), square(attackedSquare.getRow(), attackedSquare.getColumn()), occupied);
+    }
+
+    /**
+     * @param square the square being attacked (0-63, a1 is 0)
+     * @return a bitboard of the attacking team's pieces that attack the square
+     */
+    public long attackersTo(ChessGame.TeamColor attacker, int square)
+    {
+        return attackersTo(attacker.ordinal(), square, occupied);
+    }
+
+    //attackers with sliders blocked by the given occupancy instead of the board's, for looking at a position
+    //with pieces lifted off (en passant, x-rays)
+    long attackersTo(int attacker, int square, long occupancy)
+    {
+        int base = attacker * 6;
+        long diagonal = pieceBoards[base + BISHOP] | pieceBoards[base + QUEEN];
+        long straight = pieceBoards[base + ROOK] | pieceBoards[base + QUEEN];
+        return (Bitboards.pawnAttacks(1 - attacker, square) & pieceBoards[base + PAWN]) //a pawn attacks the squares it would be attacked from
+                | (Bitboards.knightAttacks(square) & pieceBoards[base + KNIGHT])
+                | (Bitboards.kingAttacks(square) & pieceBoards[base + KING])
+                | (Bitboards.bishopAttacks(square, occupancy) & diagonal)
+                | (Bitboards.rookAttacks(square, occupancy) & straight);
+    }
+
+    /**
+     * Checks if a square is under attack, stopping at the first attacker found
+     *
+     * @param attacker the team doing the attacking
+     * @param attackedSquare the square being attacked
+     * @return whether any piece of the attacking team attacks the square
+     */
+    public boolean isAttacked(ChessGame.TeamColor attacker, ChessPosition attackedSquare)
+    {
+        return isAttacked(attacker, square(attackedSquare.getRow(), attackedSquare.getColumn()));
+    }
+
+    /**
+     * @param square the square being attacked (0-63, a1 is 0)
+     * @return whether any piece of the attacking team attacks the square
+     */
+    public boolean isAttacked(ChessGame.TeamColor attacker, int square)
+    {
+        int base = attacker.ordinal() * 6;
+        //cheap lookups first, the sliders only if nothing else hits
+        if ((Bitboards.knightAttacks(square) & pieceBoards[base + KNIGHT]) != 0)
+            return true;
+        if ((Bitboards.pawnAttacks(1 - attacker.ordinal(), square) & pieceBoards[base + PAWN]) != 0)
+            return true;
+        if ((Bitboards.kingAttacks(square) & pieceBoards[base + KING]) != 0)
+            return true;
+        long diagonal = pieceBoards[base + BISHOP] | pieceBoards[base + QUEEN];
+        if (diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0)
+            return true;
+        long straight = pieceBoards[base + ROOK] | pieceBoards[base + QUEEN];
+        return straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0;
+    }
+
+    /**
+     * Static exchange evaluation: works out what a move wins or loses in material if both
+     * sides keep capturing on its target square, each with its least valuable piece and each
+     * free to stop whenever carrying on would lose more, without changing the board
+     * <p>
+     * Pieces behind an attacker on the same line (x-rays, like a rook behind a rook) join in
+     * once the piece in front has captured. Pins are ignored, and a king only captures when
+     * nothing can take it back.
+     *
+     * @param move a packed move (see {@link PackedMove}); quiet moves score what the mover stands to lose
+     * @return the material the side moving comes out ahead, in centipawns (negative if it loses material)
+     */
+    public int staticExchange(int move)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int mover = PackedMove.movedPiece(move) / 6;
+        int promotion = PackedMove.promotion(move);
+        long occupancy = occupied & ~(1L << from);
+        int[] gains = exchangeGains;
+
+        gains[0] = PackedMove.isCapture(move) ? EXCHANGE_VALUES[PackedMove.capturedPiece(move) % 6] : 0;
+        int onSquare = EXCHANGE_VALUES[PackedMove.movedPiece(move) % 6]; //the value of whatever sits on the square now
+        if (promotion != 0)
         {
-            attackerSquare.append(row-1);
-            attackerSquare.append(col-1);
-            return attackerSquare.toString();
+            gains[0] += EXCHANGE_VALUES[promotion] - EXCHANGE_VALUES[PAWN];
+            onSquare = EXCHANGE_VALUES[promotion];
         }
-        if (westFine && Objects.equals(chessBoard[row][col-1].getPiece(), testPiece)) //checks left square for king
+        if ((move & PackedMove.EN_PASSANT) != 0)
+            occupancy &= ~(1L << (to + (mover == 0 ? -8 : 8))); //the captured pawn isn't on the target square
+
+        long diagonal = pieceBoards[BISHOP] | pieceBoards[QUEEN] | pieceBoards[6 + BISHOP] | pieceBoards[6 + QUEEN];
+        long straight = pieceBoards[ROOK] | pieceBoards[QUEEN] | pieceBoards[6 + ROOK] | pieceBoards[6 + QUEEN];
+        long attackers = (attackersTo(0, to, occupancy) | attackersTo(1, to, occupancy)) & occupancy;
+        int side = 1 - mover;
+        int depth = 0;
+        while (true)
         {
-            attackerSquare.append(row);
-            attackerSquare.append(col-1);
-            return attackerSquare.toString();
+            long ours = attackers & teamBoards[side];
+            if (ours == 0)
+                break;
+            //the least valuable piece takes next
+            int type = KING;
+            long piece = 0L;
+            for (int candidate : EXCHANGE_ORDER)
+            {
+                piece = ours & pieceBoards[side * 6 + candidate];
+                if (piece != 0)
+                {
+                    type = candidate;
+                    break;
+                }
+            }
+            if (type == KING && (attackers & teamBoards[1 - side]) != 0)
+                break; //the king can't take a defended piece
+
+            depth++;
+            gains[depth] = onSquare - gains[depth - 1]; //what this side is up if the capturing stops here
+            onSquare = EXCHANGE_VALUES[type];
+
+            occupancy &= ~(piece & -piece);
+            //lifting the piece off can uncover a slider behind it
+            if (type == PAWN || type == BISHOP || type == QUEEN)
+                attackers |= Bitboards.bishopAttacks(to, occupancy) & diagonal;
+            if (type == ROOK || type == QUEEN)
+                attackers |= Bitboards.rookAttacks(to, occupancy) & straight;
+            attackers &= occupancy;
+            side = 1 - side;
         }
-        if (westFine && northFine && Objects.equals(chessBoard[row+1][col-1].getPiece(), testPiece)) //checks top left for king
+
+        //each side stops capturing as soon as going on would be worse
+        while (depth > 0)
         {
-            attackerSquare.append(row+1);
-            attackerSquare.append(col-1);
-            return attackerSquare.toString();
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
         }
-        else
-            return "";
+        return gains[0];
+    }
 
+    /**
+     * Static exchange evaluation of a move given by its squares, e.g. to check a player's move
+     * for a blunder (see {@link #staticExchange(int)})
+     *
+     * @return the material the side moving comes out ahead, in centipawns (negative if it loses material)
+     */
+    public int staticExchange(ChessMove move)
+    {
+        int from = square(move.getStartPosition().getRow(), move.getStartPosition().getColumn());
+        int to = square(move.getEndPosition().getRow(), move.getEndPosition().getColumn());
+        int moved = mailbox[from];
+        if (moved == EMPTY)
+            throw new RuntimeException("there's no piece to move at " + move.getStartPosition());
+
+        int captured = mailbox[to];
+        int flags = captured == EMPTY ? 0 : PackedMove.CAPTURE;
+        if (moved % 6 == PAWN && captured == EMPTY && from % 8 != to % 8)
+        {
+            captured = (1 - moved / 6) * 6 + PAWN; //a pawn moving diagonally onto an empty square takes en passant
+            flags = PackedMove.CAPTURE | PackedMove.EN_PASSANT;
+        }
+        ChessPiece.PieceType promotionType = move.getPromotionPiece();
+        int promotion = promotionType == null || promotionType == ChessPiece.PieceType.NOTHING ? 0 : promotionType.ordinal();
+        return staticExchange(PackedMove.encode(from, to, promotion, flags, moved, captured));
     }
 
     public void setLastMove(ChessMove move)
@@ -465,13 +802,13 @@ public class ChessBoard {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that = (ChessBoard) o;
-        return Arrays.deepEquals(chessBoard, that.chessBoard) && Objects.equals(lastMove, that.lastMove);
+        return Arrays.equals(pieceBoards, that.pieceBoards) && Objects.equals(lastMove, that.lastMove);
     }
 
     @Override
     public int hashCode() {
         int result = Objects.hash(lastMove);
-        result = 31 * result + Arrays.hashCode(chessBoard);
+        result = 31 * result + Long.hashCode(placementKey); //equals only looks at the pieces, so only they're hashed
         return result;
     }
 }
@@ -1,8 +1,7 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.HashSet;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -14,6 +13,7 @@ public class ChessGame {
 
     TeamColor currentPlayer;
     ChessBoard board;
+    transient Tablebase tablebase = null; //settles endgames it has a table for, if there is one; not part of the game state
 
     public ChessGame() {
         //make the board
@@ -43,6 +43,7 @@ public class ChessGame {
     public void setTeamTurn(TeamColor team)
     {
         currentPlayer = team;
+        board.setSideToMove(team);
     }
 
     /**
@@ -54,6 +55,16 @@ public class ChessGame {
         NOTHING
     }
 
+    /**
+     * How a game stands, as decided by {@link #adjudicate()}
+     */
+    public enum GameResult {
+        ONGOING,
+        WHITE_WINS,
+        BLACK_WINS,
+        DRAW
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -63,7 +74,16 @@ public class ChessGame {
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition)
     {
-        return board.getPiece(startPosition).pieceMoves(board, startPosition);
+        if (board.getPiece(startPosition).getPieceType() == ChessPiece.PieceType.NOTHING)
+            return null; //no piece on the square selected
+
+        //only legal moves are generated, so nothing has to be played out to test it
+        MoveList moves = new MoveList(32);
+        MoveGenerator.generateLegalPieceMoves(board, ChessBoard.square(startPosition.getRow(), startPosition.getColumn()), moves);
+        HashSet<ChessMove> valid = new HashSet<>(moves.size() * 2);
+        for (int i = 0; i < moves.size(); i++)
+            valid.add(PackedMove.toChessMove(moves.get(i)));
+        return valid;
     }
 
     /**
@@ -80,24 +100,30 @@ public class ChessGame {
         if (mypiece.getTeamColor() != currentPlayer)
             throw new InvalidMoveException();
 
-        //make sure that the move being made can be made by that piece
-        java.util.Collection<ChessMove> moves = validMoves(move.getStartPosition());
-        if (!moves.contains(move))
+        //make sure that the move being made is a legal move for that piece
+        int packed = findMove(move);
+        if (packed == PackedMove.NONE)
             throw new InvalidMoveException();
 
-        //copy the current board
-        ChessBoard temp = board;
-
         //make the move
-        board.removePiece(move.getStartPosition());
-        board.addPiece(move.getEndPosition(), mypiece);
+        board.makeMove(packed);
 
-        //if the move causes the player to be in check, reverse the move (it's invalid)
-        if (this.isInCheck(currentPlayer))
+        //other team's turn
+        currentPlayer = board.getSideToMove();
+    }
+
+    //the generated legal move matching a ChessMove, or NONE if the piece can't make that move
+    private int findMove(ChessMove move)
+    {
+        ChessPosition start = move.getStartPosition();
+        MoveList moves = new MoveList(32);
+        MoveGenerator.generateLegalPieceMoves(board, ChessBoard.square(start.getRow(), start.getColumn()), moves);
+        for (int i = 0; i < moves.size(); i++)
         {
-            board = temp;
-            throw new InvalidMoveException();
+            if (PackedMove.matches(moves.get(i), move))
+                return moves.get(i);
         }
+        return PackedMove.NONE;
     }
 
     /**
@@ -108,34 +134,7 @@ public class ChessGame {
      */
     public boolean isInCheck(TeamColor teamColor)
     {
-        //finds the friendly king
-        ChessPosition kingPosition = null;
-        for (int i = 1; i <= 8; i++) // rows (white to black)
-        {
-            for (int j = 1; j <= 8; j++) //columns (queenside to kingside)
-            {
-                //if the chess piece on the square is the friendly king
-                if (Objects.equals(board.getPiece(new ChessPosition(i, j)), new ChessPiece(teamColor, ChessPiece.PieceType.KING)))
-                    kingPosition = new ChessPosition(i, j);
-            }
-        }
-        if (kingPosition == null)
-            throw new RuntimeException("there's no king here, what?");
-
-        TeamColor attacker = null;
-        if (teamColor == TeamColor.WHITE)
-            attacker = TeamColor.BLACK;
-        else if (teamColor == TeamColor.BLACK)
-            attacker = TeamColor.WHITE;
-
-        if (attacker == null)
-            throw new RuntimeException("somehow the team color is neither white nor black");
-
-        //returns whether the king's square is under attack
-        if (Objects.equals(board.squareAttacked(attacker, kingPosition), ""))
-            return true;
-        else
-            return false;
+        return MoveGenerator.inCheck(board, teamColor);
     }
 
     /**
@@ -146,79 +145,8 @@ public class ChessGame {
      */
     public boolean isInCheckmate(TeamColor teamColor)
     {
-        //finds the friendly king
-        ChessPosition kingPosition = null;
-        for (int i = 1; i <= 8; i++) // rows (white to black)
-        {
-            for (int j = 1; j <= 8; j++) //columns (queenside to kingside)
-            {
-                //if the chess piece on the square is the friendly king
-                if (Objects.equals(board.getPiece(new ChessPosition(i, j)), new ChessPiece(teamColor, ChessPiece.PieceType.KING)))
-                    kingPosition = new ChessPosition(i, j);
-            }
-        }
-        if (kingPosition == null)
-            throw new RuntimeException("there's no king here, what?");
-
-        TeamColor attacker = null;
-        if (teamColor == TeamColor.WHITE)
-            attacker = TeamColor.BLACK;
-        else if (teamColor == TeamColor.BLACK)
-            attacker = TeamColor.WHITE;
-
-        if (attacker == null)
-            throw new RuntimeException("somehow the team color is neither white nor black");
-
-        String attackers = board.squareAttacked(attacker, kingPosition);
-
-        //returns whether the king's square is under attack
-        if (Objects.equals(attackers, ""))
-            return false; //king is not under attack, not checkmate
-        else
-        {
-            //king is in check, may be checkmate
-            if (kingPosition.getPiece().pieceMoves(board, kingPosition) == null)
-            {
-                //king has no moves
-                if (board.squareAttacked(attacker, kingPosition).length() > 2)
-                    return true; //double attack + no king moves = checkmate
-                else
-                {
-                    //check if there's any non-king piece that can stop checkmate
-                    int row = attackers.charAt(0);
-                    int col = attackers.charAt(1);//the row and column the attacking piece rests on
-
-                    //make code to see if piece is pinned
-                    //if piece is pinned, skip looking at their moves
-                    //check if you have any pieces that can capture the enemy piece first
-
-
-                    int row_diff = row-kingPosition.getRow();
-                    int col_diff = col-kingPosition.getColumn();//determines the relative position of king and attacker
-
-                    if(row_diff == 0) //rook or queen on same row
-                    {
-
-                    }
-                    else if(col_diff == 0) //rook or queen on same column
-                    {
-
-                    }
-
-                    else if (row_diff - col_diff == 0) //bishop or queen on up and right diagonal
-                    {
-
-                    }
-                    else if (row_diff + col_diff == 0) //bishop or queen on down and right diagonal
-                    {
-
-                    }
-                }
-            }
-            else
-                return false; //king can move, not checkmate
-        }
-        return false;
+        //in check with no legal way out
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
     }
 
     /**
@@ -230,7 +158,57 @@ public class ChessGame {
      */
     public boolean isInStalemate(TeamColor teamColor)
     {
-        throw new RuntimeException("Not implemented");
+        //not in check, but nothing legal to do
+        return !isInCheck(teamColor) && !hasLegalMove(teamColor);
+    }
+
+    private boolean hasLegalMove(TeamColor teamColor)
+    {
+        return MoveGenerator.generateLegalMoves(board, teamColor, new MoveList()) > 0;
+    }
+
+    /**
+     * Lets {@link #adjudicate()} settle endgames the tablebase has tables for
+     *
+     * @param tablebase the tablebase to consult, or null for none
+     */
+    public void setTablebase(Tablebase tablebase)
+    {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Decides whether the game is over: by checkmate or stalemate, by the fifty move rule,
+     * because neither side has enough left to mate, or because the tablebase knows the
+     * result of the endgame with perfect play
+     *
+     * @return the result, or ONGOING if the game should go on
+     */
+    public GameResult adjudicate()
+    {
+        TeamColor opponent = currentPlayer == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        if (!hasLegalMove(currentPlayer))
+            return isInCheck(currentPlayer) ? winFor(opponent) : GameResult.DRAW;
+        if (board.getHalfmoveClock() >= 100)
+            return GameResult.DRAW;
+
+        if (tablebase != null)
+        {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.UNKNOWN)
+                return value == 0 ? GameResult.DRAW : winFor(value > 0 ? currentPlayer : opponent);
+        }
+
+        //two kings, or two kings and a single bishop or knight, can't be mated
+        int pieces = Long.bitCount(board.occupied);
+        if (pieces == 2 || (pieces == 3 && board.minorPieces() != 0))
+            return GameResult.DRAW;
+        return GameResult.ONGOING;
+    }
+
+    private static GameResult winFor(TeamColor team)
+    {
+        return team == TeamColor.WHITE ? GameResult.WHITE_WINS : GameResult.BLACK_WINS;
     }
 
     /**
@@ -240,6 +218,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        board.setSideToMove(currentPlayer);
     }
 
     /**
@@ -251,30 +230,70 @@ public class ChessGame {
         return board;
     }
 
-    private boolean wayOutOfCheckmate(TeamColor teamColor)
+    /**
+     * Sets up a new game from a position in Forsyth-Edwards Notation (see {@link Fen})
+     *
+     * @param fen the position, for example {@link Fen#START}
+     * @return a new game at that position
+     */
+    public static ChessGame fromFen(CharSequence fen)
     {
-        //finds the friendly king
-        ChessPosition kingPosition = null;
-        for (int i = 1; i <= 8; i++) // rows (white to black)
-        {
-            for (int j = 1; j <= 8; j++) //columns (queenside to kingside)
-            {
-                //if the chess piece on the square is the friendly king
-                if (Objects.equals(board.getPiece(new ChessPosition(i, j)), new ChessPiece(teamColor, ChessPiece.PieceType.KING)))
-                    kingPosition = new ChessPosition(i, j);
-            }
-        }
-        if (kingPosition == null)
-            throw new RuntimeException("there's no king here, what?");
+        ChessGame game = new ChessGame();
+        game.loadFen(fen);
+        return game;
+    }
 
-        //checks if the king has any legal moves - if it does, not checkmate
-        if (board.getPiece(kingPosition).pieceMoves(board, kingPosition).isEmpty())
-        {
+    /**
+     * Replaces this game's position with one in Forsyth-Edwards Notation, reusing the board
+     * and allocating nothing
+     *
+     * @param fen the position, with or without the move counters
+     */
+    public void loadFen(CharSequence fen)
+    {
+        Fen.load(fen, board);
+        currentPlayer = board.getSideToMove();
+    }
 
-        }
-        else
-            return false;
+    /**
+     * Replaces this game's position with one in Forsyth-Edwards Notation read from ASCII bytes
+     *
+     * @param offset where the position starts in the array
+     * @param length how many bytes it takes up
+     */
+    public void loadFen(byte[] ascii, int offset, int length)
+    {
+        Fen.load(ascii, offset, length, board);
+        currentPlayer = board.getSideToMove();
+    }
+
+    /**
+     * @return this game's position in Forsyth-Edwards Notation
+     */
+    public String toFen()
+    {
+        return Fen.toString(board);
+    }
+
+    /**
+     * Counts every sequence of legal moves of the given length from the current position
+     *
+     * @param depth how many moves deep to count
+     * @return the number of positions at the end of those sequences
+     */
+    public long perft(int depth)
+    {
+        return Perft.perft(board, currentPlayer, depth);
+    }
 
-        return false;
+    /**
+     * Perft count split up by the first move, for tracking down move generation bugs
+     *
+     * @param depth how many moves deep to count
+     * @return the node count under each legal move from the current position
+     */
+    public java.util.Map<ChessMove, Long> divide(int depth)
+    {
+        return Perft.divide(board, currentPlayer, depth);
     }
 }
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -10,9 +8,19 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
-    int row; //this is the row 1-8 - 1 is white's end, 8 is black's
-    int column; //this is the columns a-h - a is rook's on queenside, h is rook's on king's side
-    ChessPiece piece;
+    final int row; //this is the row 1-8 - 1 is white's end, 8 is black's
+    final int column; //this is the columns a-h - a is rook's on queenside, h is rook's on king's side
+
+    //every square's position, made once and shared, indexed by ChessBoard.square
+    private static final ChessPosition[] SHARED = new ChessPosition[64];
+
+    static {
+        for (int row = 1; row <= 8; row++)
+        {
+            for (int col = 1; col <= 8; col++)
+                SHARED[ChessBoard.square(row, col)] = new ChessPosition(row, col);
+        }
+    }
 
     public ChessPosition(int row, int col)
     {
@@ -23,7 +31,26 @@ public class ChessPosition {
 
         this.row=row;
         this.column=col;
-        piece = new ChessPiece(chess.ChessGame.TeamColor.NOTHING, chess.ChessPiece.PieceType.NOTHING);
+    }
+
+    /**
+     * Positions can't be changed, so the 64 of them are shared instead of making new ones
+     *
+     * @return the shared position for a row and column
+     */
+    public static ChessPosition of(int row, int col)
+    {
+        if(1 > row || row > 8)
+            throw new RuntimeException("Row out of bounds");
+        if(1 > col || col > 8)
+            throw new RuntimeException("Column out of bounds");
+        return SHARED[ChessBoard.square(row, col)];
+    }
+
+    //the shared position for a square index (0-63, a1 is 0)
+    static ChessPosition of(int square)
+    {
+        return SHARED[square];
     }
 
     /**
@@ -44,30 +71,36 @@ public class ChessPosition {
         return column;
     }
 
+    /**
+     * Positions are shared between boards now, so they never hold a piece
+     *
+     * @deprecated ask the board with {@link ChessBoard#getPiece} instead
+     * @return the NOTHING piece
+     */
+    @Deprecated
     public ChessPiece getPiece()
     {
-        return piece;
+        return ChessPiece.of(ChessGame.TeamColor.NOTHING, ChessPiece.PieceType.NOTHING);
     }
 
-    //checks if there's a piece; if there isn't, adds the designated piece. Otherwise returns false.
+    /**
+     * @deprecated put pieces on the board with {@link ChessBoard#addPiece} instead
+     * @return false, since a shared position can't hold the piece
+     */
+    @Deprecated
     public boolean setPiece(ChessPiece piece)
     {
-        if (this.piece.getPieceType() == ChessPiece.PieceType.NOTHING) {
-            this.piece = piece;
-            return true;
-        }
-        else
-            return false;
+        return false;
     }
-    //checks if there's a piece; if there is, removes the piece. Otherwise returns false.
+
+    /**
+     * @deprecated pieces are only ever on the board
+     * @return false, since there's never a piece here to remove
+     */
+    @Deprecated
     public boolean removePiece()
     {
-        if (this.piece.getPieceType() == ChessPiece.PieceType.NOTHING)
-            return false;
-        else {
-            piece = new ChessPiece(ChessGame.TeamColor.NOTHING, ChessPiece.PieceType.NOTHING);
-            return true;
-        }
+        return false;
     }
 
     @Override
@@ -75,11 +108,11 @@ public class ChessPosition {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessPosition that = (ChessPosition) o;
-        return row == that.row && column == that.column && Objects.equals(piece, that.piece);
+        return row == that.row && column == that.column;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column, piece);
+        return ChessBoard.square(row, column); //already unique for every square
     }
 }
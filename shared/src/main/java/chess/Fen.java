@@ -0,0 +1,264 @@
+package chess;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: the pieces, side to move, castling
+ * rights, en passant square and the two move counters
+ * <p>
+ * Reading is one pass over the text that puts each piece straight onto the board as it's
+ * read, with no splitting into fields or other objects made along the way, so loading
+ * millions of positions into the same board allocates nothing. Text can come as any
+ * CharSequence or as ASCII bytes (a slice of a file read into memory, say). Writing appends
+ * to a StringBuilder, which also only allocates if it has to grow.
+ * <p>
+ * The move counters may be left off, as they often are; they default to 0 and 1. An en passant
+ * square with no pawn in front of it to take is dropped. Anything else that isn't a well
+ * formed position throws a RuntimeException, and the board should be thought of as cleared.
+ */
+public final class Fen {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //letter for each piece code, and piece code for each ASCII letter (-1 if it isn't a piece)
+    private static final char[] LETTERS = "KQBNRPkqbnrp".toCharArray();
+    private static final byte[] CODES = new byte[128];
+
+    //castling letters in FEN order, and the rights, king square and rook square for each
+    private static final char[] CASTLING_LETTERS = {'K', 'Q', 'k', 'q'};
+    private static final int[] CASTLING_RIGHTS = {ChessBoard.WHITE_KINGSIDE, ChessBoard.WHITE_QUEENSIDE,
+            ChessBoard.BLACK_KINGSIDE, ChessBoard.BLACK_QUEENSIDE};
+    private static final int[] CASTLING_KINGS = {4, 4, 60, 60};
+    private static final int[] CASTLING_ROOKS = {7, 0, 63, 56};
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (int code = 0; code < LETTERS.length; code++)
+            CODES[LETTERS[code]] = (byte) code;
+    }
+
+    private Fen() {}
+
+    /**
+     * Sets up the board with the position in the text, replacing whatever was on it and
+     * forgetting the moves that led there
+     */
+    public static void load(CharSequence fen, ChessBoard board)
+    {
+        parse(fen, null, 0, fen.length(), board);
+    }
+
+    /**
+     * Sets up the board with the position in a run of ASCII bytes
+     *
+     * @param offset where the position starts in the array
+     * @param length how many bytes it takes up
+     */
+    public static void load(byte[] ascii, int offset, int length, ChessBoard board)
+    {
+        parse(null, ascii, offset, offset + length, board);
+    }
+
+    /**
+     * Appends the position on the board
+     */
+    public static void write(ChessBoard board, StringBuilder out)
+    {
+        for (int row = 7; row >= 0; row--)
+        {
+            int empty = 0;
+            for (int col = 0; col < 8; col++)
+            {
+                int code = board.mailbox[row * 8 + col];
+                if (code == ChessBoard.EMPTY)
+                {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0)
+                    out.append((char) ('0' + empty));
+                empty = 0;
+                out.append(LETTERS[code]);
+            }
+            if (empty > 0)
+                out.append((char) ('0' + empty));
+            if (row > 0)
+                out.append('/');
+        }
+
+        out.append(board.sideToMove == ChessGame.TeamColor.BLACK ? " b " : " w ");
+
+        //a right only counts while its king and rook are still at home
+        int written = 0;
+        for (int i = 0; i < CASTLING_LETTERS.length; i++)
+        {
+            int king = i < 2 ? 0 : 6;
+            if ((board.castlingRights & CASTLING_RIGHTS[i]) != 0 && board.mailbox[CASTLING_KINGS[i]] == king
+                    && board.mailbox[CASTLING_ROOKS[i]] == king + 4)
+            {
+                out.append(CASTLING_LETTERS[i]);
+                written++;
+            }
+        }
+        if (written == 0)
+            out.append('-');
+
+        out.append(' ');
+        if (board.enPassantSquare < 0)
+            out.append('-');
+        else
+            out.append((char) ('a' + board.enPassantSquare % 8)).append((char) ('1' + board.enPassantSquare / 8));
+        out.append(' ').append(board.halfmoveClock).append(' ').append(board.fullmoveNumber);
+    }
+
+    /**
+     * @return the position on the board as a FEN string
+     */
+    public static String toString(ChessBoard board)
+    {
+        StringBuilder out = new StringBuilder(90);
+        write(board, out);
+        return out.toString();
+    }
+
+    //reads from text, or from bytes if text is null, between start and end
+    private static void parse(CharSequence text, byte[] bytes, int start, int end, ChessBoard board)
+    {
+        board.clear();
+        int i = skipSpaces(text, bytes, start, end);
+
+        //the pieces, from a8 across and down to h1
+        int row = 7;
+        int col = 0;
+        for (; i < end; i++)
+        {
+            int c = charAt(text, bytes, i);
+            if (c <= ' ')
+                break;
+            if (c == '/')
+            {
+                if (col != 8 || row == 0)
+                    throw error("a row without 8 squares", text, bytes, start, end);
+                row--;
+                col = 0;
+            }
+            else if (c >= '1' && c <= '8')
+                col += c - '0'; //a run of empty squares
+            else
+            {
+                int code = c < 128 ? CODES[c] : -1;
+                if (code < 0)
+                    throw error("unknown piece '" + (char) c + "'", text, bytes, start, end);
+                if (col < 8)
+                    board.setSquare(row * 8 + col, code);
+                col++;
+            }
+            if (col > 8)
+                throw error("a row without 8 squares", text, bytes, start, end);
+        }
+        if (row != 0 || col != 8)
+            throw error("not 8 rows of 8 squares", text, bytes, start, end);
+
+        //whose move it is
+        ChessGame.TeamColor side = ChessGame.TeamColor.WHITE;
+        i = skipSpaces(text, bytes, i, end);
+        if (i < end)
+        {
+            int c = charAt(text, bytes, i++);
+            if (c == 'b')
+                side = ChessGame.TeamColor.BLACK;
+            else if (c != 'w')
+                throw error("no side to move", text, bytes, start, end);
+        }
+
+        //castling rights, or '-' for none
+        int rights = 0;
+        i = skipSpaces(text, bytes, i, end);
+        for (; i < end; i++)
+        {
+            int c = charAt(text, bytes, i);
+            if (c <= ' ')
+                break;
+            int right = switch (c) {
+                case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                case '-' -> 0;
+                default -> throw error("unknown castling right '" + (char) c + "'", text, bytes, start, end);
+            };
+            rights |= right;
+        }
+
+        //the en passant square, or '-' for none
+        int enPassant = -1;
+        i = skipSpaces(text, bytes, i, end);
+        if (i < end && charAt(text, bytes, i) == '-')
+            i++;
+        else if (i < end)
+        {
+            int file = charAt(text, bytes, i) - 'a';
+            int rank = i + 1 < end ? charAt(text, bytes, i + 1) - '1' : -1;
+            //the square a pawn of the side not moving just skipped, on rank 6 with white to move
+            boolean white = side == ChessGame.TeamColor.WHITE;
+            if (file < 0 || file > 7 || rank != (white ? 5 : 2))
+                throw error("bad en passant square", text, bytes, start, end);
+            int passed = rank * 8 + file + (white ? -8 : 8);
+            if (board.mailbox[passed] == (white ? 11 : 5))
+                enPassant = rank * 8 + file; //otherwise there's no pawn to take, so it's dropped
+            i += 2;
+        }
+
+        //the halfmove clock and move number, if they're there
+        int halfmoves = 0;
+        int moveNumber = 1;
+        i = skipSpaces(text, bytes, i, end);
+        if (i < end)
+        {
+            for (; i < end && charAt(text, bytes, i) > ' '; i++)
+                halfmoves = digit(halfmoves, charAt(text, bytes, i), text, bytes, start, end);
+            i = skipSpaces(text, bytes, i, end);
+            if (i < end)
+            {
+                moveNumber = 0;
+                for (; i < end && charAt(text, bytes, i) > ' '; i++)
+                    moveNumber = digit(moveNumber, charAt(text, bytes, i), text, bytes, start, end);
+            }
+        }
+        if (skipSpaces(text, bytes, i, end) != end)
+            throw error("something after the move number", text, bytes, start, end);
+
+        board.setSideToMove(side);
+        board.setCastlingRights(rights);
+        board.setEnPassantSquare(enPassant);
+        board.setHalfmoveClock(halfmoves);
+        board.setFullmoveNumber(Math.max(1, moveNumber));
+    }
+
+    private static int charAt(CharSequence text, byte[] bytes, int i)
+    {
+        return text == null ? bytes[i] & 0xFF : text.charAt(i);
+    }
+
+    private static int skipSpaces(CharSequence text, byte[] bytes, int i, int end)
+    {
+        while (i < end && charAt(text, bytes, i) <= ' ')
+            i++;
+        return i;
+    }
+
+    //adds one more digit to a number being read
+    private static int digit(int number, int c, CharSequence text, byte[] bytes, int start, int end)
+    {
+        if (c < '0' || c > '9' || number > 100_000)
+            throw error("bad move counter", text, bytes, start, end);
+        return number * 10 + (c - '0');
+    }
+
+    private static RuntimeException error(String problem, CharSequence text, byte[] bytes, int start, int end)
+    {
+        String fen = text == null ? new String(bytes, start, end - start, StandardCharsets.US_ASCII) : text.subSequence(start, end).toString();
+        return new RuntimeException("Bad FEN, " + problem + ": " + fen);
+    }
+}
@@ -0,0 +1,373 @@
+package chess;
+
+/**
+ * Generates moves straight from the board's bitboards into a {@link MoveList}
+ * <p>
+ * Nothing here allocates: moves are written as packed ints into the list the caller passes in.
+ * The pseudo-legal generators don't filter out moves that leave the mover's own king in check
+ * (and don't castle). The legal generators work out the checkers and pinned pieces once per
+ * position and only ever add legal moves, so nothing has to be played to test it.
+ * <p>
+ * The legal generator can also be asked for only the {@link #TACTICAL} moves or only the
+ * {@link #QUIET} ones, so a search can try captures first and skip making the quiet moves at
+ * all when a capture is already good enough.
+ */
+public final class MoveGenerator {
+
+    public static final int TACTICAL = 1; //captures (including en passant) and promotions
+    public static final int QUIET = 2; //every other move, including castling
+    public static final int ALL = TACTICAL | QUIET;
+
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private MoveGenerator() {}
+
+    /**
+     * Adds every move for every piece of the given team
+     *
+     * @return how many moves were added
+     */
+    public static int generateMoves(ChessBoard board, ChessGame.TeamColor team, MoveList moves)
+    {
+        int before = moves.size();
+        long pieces = board.teamBoards[team.ordinal()];
+        while (pieces != 0)
+        {
+            generatePieceMoves(board, Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+        return moves.size() - before;
+    }
+
+    /**
+     * Adds every move for the piece on the given square (nothing if the square is empty)
+     *
+     * @return how many moves were added
+     */
+    public static int generatePieceMoves(ChessBoard board, int square, MoveList moves)
+    {
+        int before = moves.size();
+        int code = board.mailbox[square];
+        if (code == ChessBoard.EMPTY)
+            return 0;
+
+        int team = code / 6;
+        long notFriendly = ~board.teamBoards[team];
+        int type = code % 6;
+        if (type == PAWN)
+            pawnMoves(board, square, code, -1L, -1, ALL, moves);
+        else if (type == KNIGHT)
+            addTargets(board, square, code, Bitboards.knightAttacks(square) & notFriendly, moves);
+        else if (type == BISHOP)
+            addTargets(board, square, code, Bitboards.bishopAttacks(square, board.occupied) & notFriendly, moves);
+        else if (type == ROOK)
+            addTargets(board, square, code, Bitboards.rookAttacks(square, board.occupied) & notFriendly, moves);
+        else if (type == QUEEN)
+            addTargets(board, square, code, Bitboards.queenAttacks(square, board.occupied) & notFriendly, moves);
+        else if (type == KING)
+            addTargets(board, square, code, Bitboards.kingAttacks(square) & notFriendly, moves);
+        return moves.size() - before;
+    }
+
+    /**
+     * Adds every legal move for every piece of the given team, including castling and en passant
+     *
+     * @return how many moves were added
+     */
+    public static int generateLegalMoves(ChessBoard board, ChessGame.TeamColor team, MoveList moves)
+    {
+        return generateLegalMoves(board, team, ALL, moves);
+    }
+
+    /**
+     * Adds the legal moves of the given kinds for every piece of the given team
+     *
+     * @param kinds {@link #TACTICAL}, {@link #QUIET} or {@link #ALL}
+     * @return how many moves were added
+     */
+    public static int generateLegalMoves(ChessBoard board, ChessGame.TeamColor team, int kinds, MoveList moves)
+    {
+        int before = moves.size();
+        int us = team.ordinal();
+        int kingSquare = kingSquare(board, us);
+        long checkers = kingSquare < 0 ? 0L : board.attackersTo(1 - us, kingSquare, board.occupied);
+        long checkMask = checkMask(kingSquare, checkers);
+        long pinned = pinnedPieces(board, kingSquare, us);
+
+        long pieces = board.teamBoards[us];
+        while (pieces != 0)
+        {
+            legalPieceMoves(board, Long.numberOfTrailingZeros(pieces), kingSquare, checkMask, pinned, kinds, moves);
+            pieces &= pieces - 1;
+        }
+        return moves.size() - before;
+    }
+
+    /**
+     * Adds every legal move for the piece on the given square (nothing if the square is empty)
+     *
+     * @return how many moves were added
+     */
+    public static int generateLegalPieceMoves(ChessBoard board, int square, MoveList moves)
+    {
+        int code = board.mailbox[square];
+        if (code == ChessBoard.EMPTY)
+            return 0;
+
+        int before = moves.size();
+        int us = code / 6;
+        int kingSquare = kingSquare(board, us);
+        long checkers = kingSquare < 0 ? 0L : board.attackersTo(1 - us, kingSquare, board.occupied);
+        legalPieceMoves(board, square, kingSquare, checkMask(kingSquare, checkers), pinnedPieces(board, kingSquare, us), ALL, moves);
+        return moves.size() - before;
+    }
+
+    /**
+     * Checks a move that didn't come from the generator for this position, like one remembered
+     * from another position, by generating the moving piece's legal moves and looking for it
+     *
+     * @param move the packed move, including the moved and captured pieces
+     * @param scratch a list the piece's moves can be generated into; it's cleared first
+     * @return whether the move can be played by the side to move here
+     */
+    public static boolean isLegal(ChessBoard board, int move, MoveList scratch)
+    {
+        int from = PackedMove.from(move);
+        int code = board.mailbox[from];
+        if (move == PackedMove.NONE || code != PackedMove.movedPiece(move) || code / 6 != board.sideToMove.ordinal())
+            return false;
+
+        scratch.clear();
+        generateLegalPieceMoves(board, from, scratch);
+        for (int i = 0; i < scratch.size(); i++)
+        {
+            if (scratch.get(i) == move)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the given team's king is attacked (false if it has no king)
+     */
+    public static boolean inCheck(ChessBoard board, ChessGame.TeamColor team)
+    {
+        int kingSquare = kingSquare(board, team.ordinal());
+        return kingSquare >= 0 && board.isAttacked(team == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE, kingSquare);
+    }
+
+    //the square of the team's king, or -1 if it has none (some test boards don't)
+    private static int kingSquare(ChessBoard board, int team)
+    {
+        int code = team * 6 + KING;
+        return board.pieceCounts[code] == 0 ? -1 : board.pieceLists[code][0];
+    }
+
+    //where a piece other than the king may move to: anywhere out of check, onto the checker or
+    //between it and the king in single check, and nowhere in double check
+    private static long checkMask(int kingSquare, long checkers)
+    {
+        if (checkers == 0)
+            return -1L;
+        if ((checkers & (checkers - 1)) != 0)
+            return 0L;
+        return checkers | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+    }
+
+    //friendly pieces that are the only thing between an enemy slider and the king
+    private static long pinnedPieces(ChessBoard board, int kingSquare, int us)
+    {
+        if (kingSquare < 0)
+            return 0L;
+
+        int them = (1 - us) * 6;
+        long[] pieces = board.pieceBoards;
+        long enemies = board.teamBoards[1 - us];
+        //enemy sliders that would see the king if none of our pieces were in the way
+        long snipers = (Bitboards.rookAttacks(kingSquare, enemies) & (pieces[them + ROOK] | pieces[them + QUEEN]))
+                | (Bitboards.bishopAttacks(kingSquare, enemies) & (pieces[them + BISHOP] | pieces[them + QUEEN]));
+
+        long pinned = 0L;
+        while (snipers != 0)
+        {
+            long blockers = Bitboards.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & board.occupied;
+            if ((blockers & (blockers - 1)) == 0)
+                pinned |= blockers & board.teamBoards[us]; //exactly one piece in the way, pinned if it's ours
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    //every square the team attacks, with sliders blocked by the given occupancy
+    private static long attackedSquares(ChessBoard board, int team, long occupied)
+    {
+        int base = team * 6;
+        long attacks = 0L;
+        //goes through the piece lists a type at a time, so there's no lookup to find out what each piece is
+        for (int i = 0; i < board.pieceCounts[base + PAWN]; i++)
+            attacks |= Bitboards.pawnAttacks(team, board.pieceLists[base + PAWN][i]);
+        for (int i = 0; i < board.pieceCounts[base + KNIGHT]; i++)
+            attacks |= Bitboards.knightAttacks(board.pieceLists[base + KNIGHT][i]);
+        for (int i = 0; i < board.pieceCounts[base + BISHOP]; i++)
+            attacks |= Bitboards.bishopAttacks(board.pieceLists[base + BISHOP][i], occupied);
+        for (int i = 0; i < board.pieceCounts[base + ROOK]; i++)
+            attacks |= Bitboards.rookAttacks(board.pieceLists[base + ROOK][i], occupied);
+        for (int i = 0; i < board.pieceCounts[base + QUEEN]; i++)
+            attacks |= Bitboards.queenAttacks(board.pieceLists[base + QUEEN][i], occupied);
+        for (int i = 0; i < board.pieceCounts[base + KING]; i++)
+            attacks |= Bitboards.kingAttacks(board.pieceLists[base + KING][i]);
+        return attacks;
+    }
+
+    private static void legalPieceMoves(ChessBoard board, int square, int kingSquare, long checkMask, long pinned, int kinds, MoveList moves)
+    {
+        int code = board.mailbox[square];
+        int team = code / 6;
+        int type = code % 6;
+        //enemy pieces to capture, empty squares for quiet moves, or both
+        long targets = ((kinds & TACTICAL) != 0 ? board.teamBoards[1 - team] : 0L) | ((kinds & QUIET) != 0 ? ~board.occupied : 0L);
+
+        if (type == KING)
+        {
+            long steps = Bitboards.kingAttacks(square) & targets;
+            if (steps == 0 && (kinds & QUIET) == 0)
+                return; //nothing to take, so the attacked squares needn't be worked out
+            //the king can't step onto an attacked square, and the king itself doesn't block a slider checking it
+            long danger = attackedSquares(board, 1 - team, board.occupied & ~(1L << square));
+            addTargets(board, square, code, steps & ~danger, moves);
+            if ((kinds & QUIET) != 0)
+                castlingMoves(board, square, code, danger, moves);
+            return;
+        }
+
+        long allowed = checkMask;
+        if ((pinned & 1L << square) != 0)
+            allowed &= Bitboards.line(kingSquare, square); //a pinned piece can only slide along the pin
+        if (allowed == 0)
+            return;
+
+        if (type == PAWN)
+            pawnMoves(board, square, code, allowed, kingSquare, kinds, moves);
+        else if (type == KNIGHT)
+            addTargets(board, square, code, Bitboards.knightAttacks(square) & targets & allowed, moves);
+        else if (type == BISHOP)
+            addTargets(board, square, code, Bitboards.bishopAttacks(square, board.occupied) & targets & allowed, moves);
+        else if (type == ROOK)
+            addTargets(board, square, code, Bitboards.rookAttacks(square, board.occupied) & targets & allowed, moves);
+        else if (type == QUEEN)
+            addTargets(board, square, code, Bitboards.queenAttacks(square, board.occupied) & targets & allowed, moves);
+    }
+
+    //castling needs the right, the king and rook on their starting squares, nothing between them,
+    //and the king not in check or passing over an attacked square
+    private static void castlingMoves(ChessBoard board, int from, int code, long danger, MoveList moves)
+    {
+        int team = code / 6;
+        if (from != (team == 0 ? 4 : 60) || (danger & 1L << from) != 0)
+            return;
+
+        int rook = team * 6 + ROOK;
+        int kingside = team == 0 ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE;
+        int queenside = team == 0 ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE;
+        long kingsidePath = 3L << (from + 1);
+        if ((board.castlingRights & kingside) != 0 && board.mailbox[from + 3] == rook
+                && (board.occupied & kingsidePath) == 0 && (danger & kingsidePath) == 0)
+            moves.add(PackedMove.encode(from, from + 2, 0, PackedMove.CASTLE, code, ChessBoard.EMPTY));
+
+        long queensideGap = 7L << (from - 3); //the knight's square has to be empty too, but it can be attacked
+        long queensidePath = 3L << (from - 2);
+        if ((board.castlingRights & queenside) != 0 && board.mailbox[from - 4] == rook
+                && (board.occupied & queensideGap) == 0 && (danger & queensidePath) == 0)
+            moves.add(PackedMove.encode(from, from - 2, 0, PackedMove.CASTLE, code, ChessBoard.EMPTY));
+    }
+
+    //one move to each target square, marking the ones that take a piece
+    private static void addTargets(ChessBoard board, int from, int code, long targets, MoveList moves)
+    {
+        while (targets != 0)
+        {
+            int to = Long.numberOfTrailingZeros(targets);
+            int captured = board.mailbox[to];
+            int flags = captured == ChessBoard.EMPTY ? 0 : PackedMove.CAPTURE;
+            moves.add(PackedMove.encode(from, to, 0, flags, code, captured));
+            targets &= targets - 1; //drops the target just added
+        }
+    }
+
+    //allowed limits the target squares (for pins and checks); kingSquare is only needed to check
+    //en passant, which can uncover an attack on the king, and is -1 to skip that check. Promoting
+    //pushes count as tactical, the same as captures.
+    private static void pawnMoves(ChessBoard board, int from, int code, long allowed, int kingSquare, int kinds, MoveList moves)
+    {
+        int team = code / 6;
+        int forward = team == 0 ? 8 : -8; //white pawns move up the board, black pawns down
+        int startRow = team == 0 ? 1 : 6; //rows counted from 0 here
+        int lastRow = team == 0 ? 7 : 0;
+
+        //single and double steps forward
+        int to = from + forward;
+        if (to >= 0 && to < 64 && board.mailbox[to] == ChessBoard.EMPTY)
+        {
+            boolean promotes = to / 8 == lastRow;
+            if ((allowed & 1L << to) != 0 && (kinds & (promotes ? TACTICAL : QUIET)) != 0)
+                addPawnMove(from, to, 0, code, ChessBoard.EMPTY, promotes, moves);
+            int twoAhead = to + forward;
+            if (from / 8 == startRow && (kinds & QUIET) != 0 && board.mailbox[twoAhead] == ChessBoard.EMPTY
+                    && (allowed & 1L << twoAhead) != 0)
+                moves.add(PackedMove.encode(from, twoAhead, 0, PackedMove.DOUBLE_PUSH, code, ChessBoard.EMPTY));
+        }
+
+        if ((kinds & TACTICAL) == 0)
+            return;
+
+        //diagonal captures
+        long targets = Bitboards.pawnAttacks(team, from) & board.teamBoards[1 - team] & allowed;
+        while (targets != 0)
+        {
+            to = Long.numberOfTrailingZeros(targets);
+            addPawnMove(from, to, PackedMove.CAPTURE, code, board.mailbox[to], to / 8 == lastRow, moves);
+            targets &= targets - 1;
+        }
+
+        //en passant, right after an enemy pawn's double step past this one, so only on this
+        //side's turn and only with that pawn still standing behind the square
+        int target = board.enPassantSquare;
+        if (target >= 0 && team == board.sideToMove.ordinal() && (Bitboards.pawnAttacks(team, from) & 1L << target) != 0)
+        {
+            int capturedSquare = target - forward;
+            if (board.mailbox[capturedSquare] != (1 - team) * 6 + PAWN)
+                return;
+            if (kingSquare < 0 || enPassantSafe(board, from, target, capturedSquare, kingSquare, team))
+                moves.add(PackedMove.encode(from, target, 0, PackedMove.CAPTURE | PackedMove.EN_PASSANT, code,
+                        board.mailbox[capturedSquare]));
+        }
+    }
+
+    //en passant moves two pawns off their squares at once, so rather than use the pin and check
+    //masks this just looks at what would attack the king afterwards
+    private static boolean enPassantSafe(ChessBoard board, int from, int to, int capturedSquare, int kingSquare, int team)
+    {
+        long captured = 1L << capturedSquare;
+        long occupied = (board.occupied & ~(1L << from) & ~captured) | 1L << to;
+        return (board.attackersTo(1 - team, kingSquare, occupied) & ~captured) == 0;
+    }
+
+    //a pawn move reaching the last row turns into one move per promotion piece
+    private static void addPawnMove(int from, int to, int flags, int code, int captured, boolean promotes, MoveList moves)
+    {
+        if (promotes)
+        {
+            moves.add(PackedMove.encode(from, to, QUEEN, flags, code, captured));
+            moves.add(PackedMove.encode(from, to, ROOK, flags, code, captured));
+            moves.add(PackedMove.encode(from, to, BISHOP, flags, code, captured));
+            moves.add(PackedMove.encode(from, to, KNIGHT, flags, code, captured));
+        }
+        else
+            moves.add(PackedMove.encode(from, to, 0, flags, code, captured));
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+/**
+ * A reusable list of packed moves (see {@link PackedMove})
+ * <p>
+ * Keeping one list per search ply and clearing it before each use means generating
+ * moves doesn't allocate anything.
+ */
+public final class MoveList {
+
+    public static final int DEFAULT_CAPACITY = 256; //no legal chess position has more than 218 moves
+
+    int[] moves;
+    int size;
+
+    public MoveList()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity)
+    {
+        moves = new int[capacity];
+    }
+
+    public void add(int move)
+    {
+        if (size == moves.length)
+            moves = java.util.Arrays.copyOf(moves, moves.length * 2); //only if the list was made too small
+        moves[size++] = move;
+    }
+
+    public int get(int index)
+    {
+        return moves[index];
+    }
+
+    public void set(int index, int move)
+    {
+        moves[index] = move;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from the given index on
+     */
+    public void truncate(int newSize)
+    {
+        size = Math.min(size, newSize);
+    }
+}
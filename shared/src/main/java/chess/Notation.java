@@ -0,0 +1,382 @@
+package chess;
+
+/**
+ * Writes and reads moves in standard algebraic notation (SAN, like "Nbd7", "exd6", "e8=Q+"
+ * and "O-O-O") and in the long algebraic notation UCI engines use (like "e2e4" and "e7e8q")
+ * <p>
+ * SAN only names the from square as far as it has to, so writing it means knowing which
+ * other pieces of the same kind could also have moved there. That's worked out from the
+ * attack masks of the destination square, keeping only the pieces that could make the move
+ * without exposing their king, rather than by generating every legal move. Reading goes the
+ * same way: the pieces that attack the destination are found from the masks, and only their
+ * moves are generated to pick out the legal one.
+ * <p>
+ * Writing SAN plays the move on the board and takes it back to see whether it checks or
+ * mates, so a board shouldn't be shared with another thread while that happens. Reading
+ * returns {@link PackedMove#NONE} when text isn't a legal move in the position, while the
+ * {@link ChessMove} methods throw a RuntimeException.
+ */
+public final class Notation {
+
+    private static final String PIECE_LETTERS = "KQBNR"; //by piece type ordinal
+    private static final String PROMOTION_LETTERS = "kqbnr";
+    private static final int PAWN = 5;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long RANK_1 = 0xFFL;
+
+    private Notation() {}
+
+    /**
+     * @return a legal move in SAN, with a '+' or '#' if it checks or mates
+     */
+    public static String toSan(ChessBoard board, ChessMove move)
+    {
+        StringBuilder out = new StringBuilder(8);
+        writeSan(board, toPacked(board, move), out);
+        return out.toString();
+    }
+
+    /**
+     * Appends a legal move in SAN, with a '+' or '#' if it checks or mates
+     *
+     * @param move a move generated for the board, so it's legal for the side to move
+     */
+    public static void writeSan(ChessBoard board, int move, StringBuilder out)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int type = PackedMove.movedPiece(move) % 6;
+
+        if ((move & PackedMove.CASTLE) != 0)
+            out.append(to > from ? "O-O" : "O-O-O");
+        else if (type == PAWN)
+        {
+            if (PackedMove.isCapture(move))
+                out.append(file(from)).append('x');
+            out.append(file(to)).append(rank(to));
+            if (PackedMove.promotion(move) != 0)
+                out.append('=').append(PIECE_LETTERS.charAt(PackedMove.promotion(move)));
+        }
+        else
+        {
+            out.append(PIECE_LETTERS.charAt(type));
+            long others = rivals(board, move);
+            if (others != 0)
+            {
+                //the file if it tells them apart, otherwise the rank, otherwise both
+                boolean sameFile = (others & (FILE_A << (from % 8))) != 0;
+                boolean sameRank = (others & (RANK_1 << (from / 8 * 8))) != 0;
+                if (!sameFile)
+                    out.append(file(from));
+                else if (!sameRank)
+                    out.append(rank(from));
+                else
+                    out.append(file(from)).append(rank(from));
+            }
+            if (PackedMove.isCapture(move))
+                out.append('x');
+            out.append(file(to)).append(rank(to));
+        }
+
+        board.makeMove(move);
+        ChessGame.TeamColor defender = board.getSideToMove();
+        if (MoveGenerator.inCheck(board, defender))
+            out.append(MoveGenerator.generateLegalMoves(board, defender, new MoveList()) == 0 ? '#' : '+');
+        board.unmakeMove();
+    }
+
+    //the other pieces of the moving kind that could legally move to the same square
+    private static long rivals(ChessBoard board, int move)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int code = PackedMove.movedPiece(move);
+        long others = switch (code % 6) {
+            case 1 -> Bitboards.queenAttacks(to, board.occupied);
+            case 2 -> Bitboards.bishopAttacks(to, board.occupied);
+            case 3 -> Bitboards.knightAttacks(to);
+            case 4 -> Bitboards.rookAttacks(to, board.occupied);
+            default -> 0L; //there's only one king
+        };
+        others &= board.pieceBoards[code] & ~(1L << from);
+
+        int us = code / 6;
+        if (others == 0 || board.pieceCounts[us * 6] == 0)
+            return others;
+
+        //the move being written is legal, so it gets the king out of any check; another piece
+        //moving to the same square does too unless it was pinned off that line
+        int king = board.pieceLists[us * 6][0];
+        long target = 1L << to;
+        long legal = 0L;
+        for (long bits = others; bits != 0; bits &= bits - 1)
+        {
+            long other = bits & -bits;
+            long occupancy = (board.occupied & ~other) | target;
+            if ((board.attackersTo(1 - us, king, occupancy) & ~target) == 0)
+                legal |= other;
+        }
+        return legal;
+    }
+
+    /**
+     * @return the legal move some SAN stands for, or NONE if it isn't one or could be more than one
+     */
+    public static int parseSan(ChessBoard board, CharSequence san)
+    {
+        return parseSan(board, san, null, 0, san.length(), new MoveList(32));
+    }
+
+    /**
+     * Reads SAN from a run of ASCII bytes
+     *
+     * @param offset where the move starts in the array
+     * @param length how many bytes it takes up
+     * @param scratch a list moves can be generated into, so reading many moves allocates nothing
+     * @return the legal move it stands for, or NONE if it isn't one or could be more than one
+     */
+    public static int parseSan(ChessBoard board, byte[] ascii, int offset, int length, MoveList scratch)
+    {
+        return parseSan(board, null, ascii, offset, offset + length, scratch);
+    }
+
+    /**
+     * @return the legal move some SAN stands for
+     */
+    public static ChessMove fromSan(ChessBoard board, CharSequence san)
+    {
+        int move = parseSan(board, san);
+        if (move == PackedMove.NONE)
+            throw new RuntimeException("Not a legal move here: " + san);
+        return PackedMove.toChessMove(move);
+    }
+
+    //reads from text, or from bytes if text is null, between start and end
+    private static int parseSan(ChessBoard board, CharSequence text, byte[] bytes, int start, int end, MoveList scratch)
+    {
+        //check, mate and annotation marks
+        while (end > start && "+#!?".indexOf(charAt(text, bytes, end - 1)) >= 0)
+            end--;
+        if (end - start < 2)
+            return PackedMove.NONE;
+
+        int us = board.sideToMove.ordinal();
+        int first = charAt(text, bytes, start);
+        if (first == 'O' || first == '0')
+        {
+            int length = end - start;
+            if (board.pieceCounts[us * 6] == 0 || (length != 3 && length != 5))
+                return PackedMove.NONE;
+            int king = board.pieceLists[us * 6][0];
+            return find(board, 1L << king, length == 3 ? king + 2 : king - 2, 0, scratch);
+        }
+
+        //a promotion piece at the end, with or without the '='
+        int promotion = 0;
+        int last = charAt(text, bytes, end - 1);
+        int before = charAt(text, bytes, end - 2);
+        int letter = PROMOTION_LETTERS.indexOf(Character.toLowerCase(last));
+        if (letter > 0 && (before == '=' || (before >= '1' && before <= '8')))
+        {
+            promotion = letter;
+            end -= before == '=' ? 2 : 1;
+        }
+
+        if (end - start < 2)
+            return PackedMove.NONE;
+        int to = square(charAt(text, bytes, end - 2), charAt(text, bytes, end - 1));
+        if (to < 0)
+            return PackedMove.NONE;
+        end -= 2;
+
+        int type = PIECE_LETTERS.indexOf(first);
+        if (type >= 0)
+            start++;
+        else
+            type = PAWN;
+
+        //whatever's left says which piece moves if more than one could, and whether it captures
+        long from = -1L;
+        boolean fileGiven = false;
+        for (int i = start; i < end; i++)
+        {
+            int c = charAt(text, bytes, i);
+            if (c >= 'a' && c <= 'h')
+            {
+                from &= FILE_A << (c - 'a');
+                fileGiven = true;
+            }
+            else if (c >= '1' && c <= '8')
+                from &= RANK_1 << ((c - '1') * 8);
+            else if (c != 'x' && c != ':' && c != '-')
+                return PackedMove.NONE;
+        }
+
+        if (type == PAWN && !fileGiven)
+            from &= FILE_A << (to % 8); //a pawn not said to capture from another file moves straight
+
+        int code = us * 6 + type;
+        long candidates = switch (type) {
+            case 0 -> Bitboards.kingAttacks(to);
+            case 1 -> Bitboards.queenAttacks(to, board.occupied);
+            case 2 -> Bitboards.bishopAttacks(to, board.occupied);
+            case 3 -> Bitboards.knightAttacks(to);
+            case 4 -> Bitboards.rookAttacks(to, board.occupied);
+            default -> pawnSources(board, us, to);
+        };
+        return find(board, candidates & from & board.pieceBoards[code], to, promotion, scratch);
+    }
+
+    //squares a pawn of the team could move to a square from: diagonally, or one or two straight behind it
+    private static long pawnSources(ChessBoard board, int us, int to)
+    {
+        long sources = Bitboards.pawnAttacks(1 - us, to);
+        int back = us == 0 ? -8 : 8;
+        int one = to + back;
+        if (one >= 0 && one < 64)
+        {
+            sources |= 1L << one;
+            int two = one + back;
+            if (board.mailbox[one] == ChessBoard.EMPTY && two >= 0 && two < 64)
+                sources |= 1L << two;
+        }
+        return sources;
+    }
+
+    //the one legal move from any of the squares to the target square, or NONE if there isn't exactly one
+    private static int find(ChessBoard board, long sources, int to, int promotion, MoveList scratch)
+    {
+        int found = PackedMove.NONE;
+        for (; sources != 0; sources &= sources - 1)
+        {
+            scratch.clear();
+            MoveGenerator.generateLegalPieceMoves(board, Long.numberOfTrailingZeros(sources), scratch);
+            for (int i = 0; i < scratch.size(); i++)
+            {
+                int move = scratch.get(i);
+                if (PackedMove.to(move) != to || PackedMove.promotion(move) != promotion)
+                    continue;
+                if (found != PackedMove.NONE)
+                    return PackedMove.NONE;
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return a move in UCI long algebraic notation, like "e2e4", "e1g1" or "e7e8q"
+     */
+    public static String toUci(ChessMove move)
+    {
+        StringBuilder out = new StringBuilder(5);
+        out.append((char) ('a' + move.getStartPosition().getColumn() - 1)).append(move.getStartPosition().getRow());
+        out.append((char) ('a' + move.getEndPosition().getColumn() - 1)).append(move.getEndPosition().getRow());
+        if (move.getPromotionPiece() != ChessPiece.PieceType.NOTHING && move.getPromotionPiece() != null)
+            out.append(PROMOTION_LETTERS.charAt(move.getPromotionPiece().ordinal()));
+        return out.toString();
+    }
+
+    /**
+     * Appends a packed move in UCI long algebraic notation
+     */
+    public static void writeUci(int move, StringBuilder out)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        out.append(file(from)).append(rank(from)).append(file(to)).append(rank(to));
+        if (PackedMove.promotion(move) != 0)
+            out.append(PROMOTION_LETTERS.charAt(PackedMove.promotion(move)));
+    }
+
+    /**
+     * @return the legal move some UCI notation stands for, or NONE if it isn't one
+     */
+    public static int parseUci(ChessBoard board, CharSequence uci)
+    {
+        return parseUci(board, uci, new MoveList(32));
+    }
+
+    /**
+     * @param scratch a list moves can be generated into, so reading many moves allocates nothing
+     * @return the legal move some UCI notation stands for, or NONE if it isn't one
+     */
+    public static int parseUci(ChessBoard board, CharSequence uci, MoveList scratch)
+    {
+        int length = uci.length();
+        if (length != 4 && length != 5)
+            return PackedMove.NONE;
+        int from = square(uci.charAt(0), uci.charAt(1));
+        int to = square(uci.charAt(2), uci.charAt(3));
+        int promotion = length == 5 ? PROMOTION_LETTERS.indexOf(uci.charAt(4)) : 0;
+        if (from < 0 || to < 0 || promotion < 0 || board.mailbox[from] / 6 != board.sideToMove.ordinal())
+            return PackedMove.NONE;
+        return find(board, 1L << from, to, promotion, scratch);
+    }
+
+    /**
+     * @return the legal move some UCI notation stands for
+     */
+    public static ChessMove fromUci(ChessBoard board, CharSequence uci)
+    {
+        int move = parseUci(board, uci);
+        if (move == PackedMove.NONE)
+            throw new RuntimeException("Not a legal move here: " + uci);
+        return PackedMove.toChessMove(move);
+    }
+
+    /**
+     * Reads UCI notation without a board, so the move isn't checked against any position
+     *
+     * @return the move it names
+     */
+    public static ChessMove fromUci(CharSequence uci)
+    {
+        int length = uci.length();
+        int from = length == 4 || length == 5 ? square(uci.charAt(0), uci.charAt(1)) : -1;
+        int to = length == 4 || length == 5 ? square(uci.charAt(2), uci.charAt(3)) : -1;
+        int promotion = length == 5 ? PROMOTION_LETTERS.indexOf(uci.charAt(4)) : 0;
+        if (from < 0 || to < 0 || promotion < 0 || (length == 5 && promotion == 0))
+            throw new RuntimeException("Not a UCI move: " + uci);
+        return new ChessMove(ChessPosition.of(from / 8 + 1, from % 8 + 1), ChessPosition.of(to / 8 + 1, to % 8 + 1),
+                promotion == 0 ? null : ChessPiece.PieceType.values()[promotion]);
+    }
+
+    //the legal packed move a ChessMove stands for
+    private static int toPacked(ChessBoard board, ChessMove move)
+    {
+        ChessPosition start = move.getStartPosition();
+        MoveList moves = new MoveList(32);
+        MoveGenerator.generateLegalPieceMoves(board, ChessBoard.square(start.getRow(), start.getColumn()), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            if (PackedMove.matches(moves.get(i), move))
+                return moves.get(i);
+        }
+        throw new RuntimeException("Not a legal move here: " + toUci(move));
+    }
+
+    //a square from its file and rank characters, or -1 if they aren't ones
+    private static int square(int file, int rank)
+    {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return -1;
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    private static char file(int square)
+    {
+        return (char) ('a' + square % 8);
+    }
+
+    private static char rank(int square)
+    {
+        return (char) ('1' + square / 8);
+    }
+
+    private static int charAt(CharSequence text, byte[] bytes, int i)
+    {
+        return text == null ? bytes[i] & 0xFF : text.charAt(i);
+    }
+
+}
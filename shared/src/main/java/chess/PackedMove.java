@@ -0,0 +1,97 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move lists can be plain int arrays
+ * <p>
+ * Bits 0-5 hold the start square and bits 6-11 the end square (0-63, a1 = 0).
+ * Bits 12-14 hold the promotion piece as a {@link ChessPiece.PieceType} ordinal, or 0 if
+ * the move isn't a promotion (a pawn can never promote to a king, so 0 is free). Bits 15-18
+ * are flags, and bits 19-22 and 23-26 hold the piece codes of the moving and captured
+ * pieces (see {@link ChessBoard}), the captured one being EMPTY if nothing is taken.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0; //not a real move (a1 to a1)
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {}
+
+    /**
+     * @param promotion the promotion piece type's ordinal, or 0 for none
+     * @param flags any of CAPTURE, DOUBLE_PUSH, EN_PASSANT and CASTLE or'd together
+     * @param moved piece code of the piece moving
+     * @param captured piece code of the piece taken, or EMPTY
+     */
+    public static int encode(int from, int to, int promotion, int flags, int moved, int captured)
+    {
+        return from | (to << 6) | (promotion << 12) | flags | (moved << 19) | (captured << 23);
+    }
+
+    public static int from(int move)
+    {
+        return move & 0x3F;
+    }
+
+    public static int to(int move)
+    {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece type's ordinal, or 0 if this isn't a promotion
+     */
+    public static int promotion(int move)
+    {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static int movedPiece(int move)
+    {
+        return (move >>> 19) & 0xF;
+    }
+
+    public static int capturedPiece(int move)
+    {
+        return (move >>> 23) & 0xF;
+    }
+
+    public static boolean isCapture(int move)
+    {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the promotion piece type, or NOTHING if this isn't a promotion
+     */
+    public static ChessPiece.PieceType promotionType(int move)
+    {
+        int promotion = promotion(move);
+        return promotion == 0 ? ChessPiece.PieceType.NOTHING : TYPES[promotion];
+    }
+
+    /**
+     * @return the same move as a ChessMove
+     */
+    public static ChessMove toChessMove(int move)
+    {
+        int from = from(move);
+        int to = to(move);
+        return new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotionType(move));
+    }
+
+    /**
+     * @return whether a packed move goes between the same squares with the same promotion as a ChessMove
+     */
+    public static boolean matches(int move, ChessMove chessMove)
+    {
+        return from(move) == ChessBoard.square(chessMove.getStartPosition().getRow(), chessMove.getStartPosition().getColumn())
+                && to(move) == ChessBoard.square(chessMove.getEndPosition().getRow(), chessMove.getEndPosition().getColumn())
+                && promotionType(move) == chessMove.getPromotionPiece();
+    }
+}
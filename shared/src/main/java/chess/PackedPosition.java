@@ -0,0 +1,158 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary form of a position, for storing and sending boards where a FEN string or
+ * a JSON tree of 64 squares would be far bigger
+ * <p>
+ * The layout is an 8 byte occupancy bitboard (bit n set if square n, a1 = 0, has a piece),
+ * then a 4 bit piece code for each occupied square in square order (low nibble first, padded
+ * to a whole byte), then a state byte (bit 0 set if black is to move, bits 1-4 the castling
+ * rights), a byte of halfmove clock (held to 255) and 2 bytes of move number. A full board of
+ * 32 pieces takes {@link #MAX_BYTES}, 28 bytes.
+ * <p>
+ * Piece codes are {@link ChessBoard}'s, with white's king, queen, bishop, knight, rook and pawn
+ * 0 to 5 and black's 6 to 11. The en passant square is kept by giving the pawn that can be
+ * taken code 12 instead of its own, since it can only belong to the side not moving.
+ * <p>
+ * Encoding and decoding go straight between the board and the buffer, with nothing
+ * allocated. Multi-byte values use the buffer's byte order, so both ends need to agree on it.
+ */
+public final class PackedPosition {
+
+    public static final int MAX_BYTES = 8 + 16 + 4;
+
+    private static final int EN_PASSANT_PAWN = 12;
+    private static final int MAX_HALFMOVES = 255;
+
+    private PackedPosition() {}
+
+    /**
+     * @return how many bytes the board's position takes encoded
+     */
+    public static int size(ChessBoard board)
+    {
+        return 8 + (Long.bitCount(board.occupied) + 1) / 2 + 4;
+    }
+
+    /**
+     * Writes the board's position at the buffer's position, advancing it
+     *
+     * @return how many bytes were written
+     * @throws java.nio.BufferOverflowException if there isn't room for it
+     */
+    public static int encode(ChessBoard board, ByteBuffer out)
+    {
+        int start = out.position();
+        long occupied = board.occupied;
+        out.putLong(occupied);
+
+        //the pawn that just moved two squares, if it can be taken en passant
+        int passed = -1;
+        if (board.enPassantSquare >= 0)
+        {
+            boolean white = board.sideToMove == ChessGame.TeamColor.WHITE;
+            passed = board.enPassantSquare + (white ? -8 : 8);
+            if (board.mailbox[passed] != (white ? 11 : 5))
+                passed = -1; //no pawn there to take, so there's no en passant to keep
+        }
+
+        int pending = -1;
+        for (long bits = occupied; bits != 0; bits &= bits - 1)
+        {
+            int square = Long.numberOfTrailingZeros(bits);
+            int code = square == passed ? EN_PASSANT_PAWN : board.mailbox[square];
+            if (pending < 0)
+                pending = code;
+            else
+            {
+                out.put((byte) (pending | code << 4));
+                pending = -1;
+            }
+        }
+        if (pending >= 0)
+            out.put((byte) pending);
+
+        int state = (board.sideToMove == ChessGame.TeamColor.BLACK ? 1 : 0) | board.castlingRights << 1;
+        out.put((byte) state);
+        out.put((byte) Math.min(board.halfmoveClock, MAX_HALFMOVES));
+        out.putShort((short) Math.min(board.fullmoveNumber, 0xFFFF));
+        return out.position() - start;
+    }
+
+    /**
+     * @return the board's position encoded in a new array
+     */
+    public static byte[] toBytes(ChessBoard board)
+    {
+        byte[] bytes = new byte[size(board)];
+        encode(board, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Sets up the board with a position read from the buffer's position, advancing it, and
+     * forgetting the moves that led to whatever was on the board before
+     *
+     * @throws BufferUnderflowException if the buffer ends partway through
+     * @throws RuntimeException if the bytes aren't a position written by {@link #encode}
+     */
+    public static void decode(ByteBuffer in, ChessBoard board)
+    {
+        board.clear();
+        long occupied = in.getLong();
+        int count = Long.bitCount(occupied);
+        if (in.remaining() < (count + 1) / 2 + 4)
+            throw new BufferUnderflowException();
+
+        ChessGame.TeamColor side = ChessGame.TeamColor.WHITE;
+        int passed = -1;
+        int packed = 0;
+        int n = 0;
+        for (long bits = occupied; bits != 0; bits &= bits - 1, n++)
+        {
+            if (n % 2 == 0)
+                packed = in.get();
+            int code = (n % 2 == 0 ? packed : packed >> 4) & 0xF;
+            int square = Long.numberOfTrailingZeros(bits);
+            if (code == EN_PASSANT_PAWN)
+            {
+                passed = square;
+                continue;
+            }
+            if (code > EN_PASSANT_PAWN)
+                throw new RuntimeException("Bad packed position, unknown piece code " + code);
+            board.setSquare(square, code);
+        }
+
+        int state = in.get();
+        if ((state & 1) != 0)
+            side = ChessGame.TeamColor.BLACK;
+        int enPassant = -1;
+        if (passed >= 0)
+        {
+            //the pawn is whoever isn't moving's, and the square it can be taken on is the one it skipped
+            board.setSquare(passed, side == ChessGame.TeamColor.WHITE ? 11 : 5);
+            enPassant = passed + (side == ChessGame.TeamColor.WHITE ? 8 : -8);
+        }
+
+        board.setSideToMove(side);
+        board.setCastlingRights((state >> 1) & 0xF);
+        board.setEnPassantSquare(enPassant);
+        board.setHalfmoveClock(in.get() & 0xFF);
+        board.setFullmoveNumber(Math.max(1, in.getShort() & 0xFFFF));
+    }
+
+    /**
+     * @return a new game at the position in some encoded bytes
+     */
+    public static ChessGame toGame(byte[] bytes)
+    {
+        ChessGame game = new ChessGame();
+        decode(ByteBuffer.wrap(bytes), game.getBoard());
+        game.setTeamTurn(game.getBoard().getSideToMove());
+        return game;
+    }
+}
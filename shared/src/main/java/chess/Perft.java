@@ -0,0 +1,190 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth (perft), which is the
+ * standard way to check a move generator against known results and to time it
+ * <p>
+ * Running main goes through the standard positions and prints the node counts,
+ * whether they match, and how many nodes per second were searched.
+ */
+public class Perft {
+
+    /**
+     * Standard test positions with their published node counts, starting at depth 1
+     */
+    public enum Position {
+        START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                48L, 2039L, 97862L, 4085603L, 193690690L),
+        ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                14L, 191L, 2812L, 43238L, 674624L, 11030083L),
+        PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                6L, 264L, 9467L, 422333L, 15833292L),
+        TALKCHESS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                44L, 1486L, 62379L, 2103487L, 89941194L),
+        MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                46L, 2079L, 89890L, 3894594L, 164075551L);
+
+        final String fen;
+        final long[] nodes;
+
+        Position(String fen, long... nodes)
+        {
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        /**
+         * @return the position in Forsyth-Edwards notation
+         */
+        public String getFen()
+        {
+            return fen;
+        }
+
+        /**
+         * @return the known node count at the given depth
+         */
+        public long expectedNodes(int depth)
+        {
+            return nodes[depth - 1];
+        }
+
+        /**
+         * @return the deepest depth with a known node count
+         */
+        public int maxDepth()
+        {
+            return nodes.length;
+        }
+
+        /**
+         * @return a new game set up at this position
+         */
+        public ChessGame toGame()
+        {
+            return ChessGame.fromFen(fen);
+        }
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param board the position to start from (it is not changed)
+     * @param toMove the team to move first
+     * @param depth how many moves deep to go
+     * @return the number of leaf nodes
+     */
+    public static long perft(ChessBoard board, ChessGame.TeamColor toMove, int depth)
+    {
+        ChessBoard copy = new ChessBoard(board);
+        copy.setSideToMove(toMove);
+        return perft(copy, depth, newLists(depth));
+    }
+
+    //plays and takes back each move on the one board, with one move list per ply reused all the way through the tree
+    private static long perft(ChessBoard board, int depth, MoveList[] lists)
+    {
+        if (depth == 0)
+            return 1;
+
+        MoveList moves = lists[depth];
+        legalMoves(board, moves);
+        if (depth == 1)
+            return moves.size(); //every legal move is a leaf, no need to play them
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++)
+        {
+            board.makeMove(moves.get(i));
+            nodes += perft(board, depth - 1, lists);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits the perft count up by first move, which narrows down where a wrong count comes from
+     *
+     * @return the node count under each legal first move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessBoard board, ChessGame.TeamColor toMove, int depth)
+    {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        ChessBoard copy = new ChessBoard(board);
+        copy.setSideToMove(toMove);
+        MoveList[] lists = newLists(depth);
+        MoveList moves = new MoveList();
+        legalMoves(copy, moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            copy.makeMove(moves.get(i));
+            counts.put(PackedMove.toChessMove(moves.get(i)), perft(copy, depth - 1, lists));
+            copy.unmakeMove();
+        }
+        return counts;
+    }
+
+    private static MoveList[] newLists(int depth)
+    {
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++)
+            lists[i] = new MoveList();
+        return lists;
+    }
+
+    private static void legalMoves(ChessBoard board, MoveList moves)
+    {
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+    }
+
+    /**
+     * Runs every standard position and reports node counts and speed
+     * <p>
+     * Arguments: [maximum depth] [position name to divide at that depth]
+     */
+    public static void main(String[] args)
+    {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        if (args.length > 1)
+        {
+            Position position = Position.valueOf(args[1].toUpperCase());
+            ChessGame game = position.toGame();
+            long total = 0;
+            for (Map.Entry<ChessMove, Long> entry : game.divide(maxDepth).entrySet())
+            {
+                System.out.println(Notation.toUci(entry.getKey()) + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("total: " + total + " (expected " + position.expectedNodes(maxDepth) + ")");
+            return;
+        }
+
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Position position : Position.values())
+        {
+            ChessGame game = position.toGame();
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++)
+            {
+                long start = System.nanoTime();
+                long nodes = game.perft(depth);
+                long nanos = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += nanos;
+
+                String result = nodes == position.expectedNodes(depth) ? "ok" : "WRONG, expected " + position.expectedNodes(depth);
+                System.out.printf("%-10s depth %d: %,14d nodes %8.3f s %,12d nps  %s%n", position, depth, nodes,
+                        nanos / 1e9, nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos, result);
+            }
+        }
+        System.out.printf("total: %,d nodes in %.3f s, %,d nps%n", totalNodes, totalNanos / 1e9,
+                totalNanos == 0 ? 0 : totalNodes * 1_000_000_000L / totalNanos);
+    }
+}
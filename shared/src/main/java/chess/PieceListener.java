@@ -0,0 +1,16 @@
+package chess;
+
+/**
+ * Hears about every piece put on or taken off a {@link ChessBoard}, including by
+ * {@link ChessBoard#makeMove(int)} and {@link ChessBoard#unmakeMove()}, so something like an
+ * evaluator can keep its own picture of the board up to date without rescanning it
+ * <p>
+ * Pieces are given as piece codes (team ordinal * 6 + piece type ordinal, so white's king is 0
+ * and black's pawn is 11) and squares as 0-63, with a1 as 0 and h8 as 63.
+ */
+public interface PieceListener {
+
+    void pieceAdded(int code, int square);
+
+    void pieceRemoved(int code, int square);
+}
@@ -0,0 +1,150 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Perfect play for endgames of a king and a few pieces against a bare king, read from the
+ * tables {@link TablebaseGenerator} writes
+ * <p>
+ * The table files are memory mapped rather than read in, so opening a directory of them is
+ * quick, only the parts that get probed are ever loaded, and every thread (and process) using
+ * the same files shares one copy. Probing doesn't allocate or lock, so one Tablebase can serve
+ * any number of search threads.
+ * <p>
+ * The tables don't know about castling or the fifty move rule, so a probe answers as if
+ * neither applies.
+ */
+public final class Tablebase {
+
+    public static final String EXTENSION = ".tb";
+    public static final int UNKNOWN = Integer.MIN_VALUE; //no table covers the position
+    public static final int MATE = 1000; //wins are MATE minus the plies to mate, losses the negative of that
+
+    //each loaded table and its material, by material signature
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[TablebaseMaterial.SIGNATURES];
+    private final TablebaseMaterial[] materials = new TablebaseMaterial[TablebaseMaterial.SIGNATURES];
+    private int maxPieces = 3; //a king and a minor piece against a king is always known to be a draw
+
+    private Tablebase() {}
+
+    /**
+     * Maps every table file (*.tb) in a directory
+     */
+    public static Tablebase open(Path directory) throws IOException
+    {
+        Tablebase tablebase = new Tablebase();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files)
+                tablebase.map(file);
+        }
+        return tablebase;
+    }
+
+    private void map(Path file) throws IOException
+    {
+        String name = file.getFileName().toString();
+        TablebaseMaterial material = TablebaseMaterial.parse(name.substring(0, name.length() - EXTENSION.length()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != TablebaseGenerator.HEADER_BYTES + (long) material.size)
+                throw new RuntimeException(file + " is the wrong size for a " + material + " table");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); //stays valid once the channel closes
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != TablebaseGenerator.MAGIC || buffer.getInt(4) != material.signature)
+                throw new RuntimeException(file + " isn't a " + material + " table");
+            tables[material.signature] = buffer;
+            materials[material.signature] = material;
+            maxPieces = Math.max(maxPieces, material.pieces.length + 2);
+        }
+    }
+
+    /**
+     * @return the most pieces (kings included) any table has, so positions with more needn't be probed
+     */
+    public int maxPieces()
+    {
+        return maxPieces;
+    }
+
+    /**
+     * @return whether there's a table for the material, given as a name like "KBNK"
+     */
+    public boolean has(String material)
+    {
+        return tables[TablebaseMaterial.parse(material).signature] != null;
+    }
+
+    /**
+     * Looks up the position on the board, with the team whose turn it is on the board to move
+     *
+     * @return {@link #UNKNOWN} if no table covers it, 0 for a draw, {@link #MATE} minus the
+     * plies to mate if the side to move wins, or the negative of that if it loses
+     */
+    public int probe(ChessBoard board)
+    {
+        if (Long.bitCount(board.occupied) > maxPieces || board.pieceCounts[0] != 1 || board.pieceCounts[6] != 1)
+            return UNKNOWN;
+
+        //one side has to have nothing but its king
+        int strong;
+        if (board.teamBoards[1] == board.pieceBoards[6])
+            strong = 0;
+        else if (board.teamBoards[0] == board.pieceBoards[0])
+            strong = 1;
+        else
+            return UNKNOWN;
+
+        int signature = 0;
+        for (int slot = 0; slot < TablebaseMaterial.TYPES.length; slot++)
+        {
+            int count = board.pieceCounts[strong * 6 + TablebaseMaterial.TYPES[slot]];
+            if (count > 3)
+                return UNKNOWN;
+            signature += count << (slot * 2);
+        }
+        TablebaseMaterial material = materials[signature];
+        if (material == null)
+            return isLoneMinor(signature) ? 0 : UNKNOWN;
+
+        //the tables have the strong side as white, so black's pieces are looked up with the board flipped
+        int flip = strong == 0 ? 0 : 56;
+        int strongKing = board.pieceLists[strong * 6][0] ^ flip;
+        int bareKing = board.pieceLists[(1 - strong) * 6][0] ^ flip;
+        int toMove = board.sideToMove.ordinal() == strong ? 0 : 1;
+        int orientation = material.orientation(strongKing);
+        int index = material.kingsIndex(toMove, strongKing, bareKing, orientation);
+        int piece = 0;
+        for (int type : TablebaseMaterial.TYPES)
+        {
+            for (long bits = board.pieceBoards[strong * 6 + type]; bits != 0; bits &= bits - 1)
+                index = material.addPiece(index, piece++, TablebaseMaterial.orient(Long.numberOfTrailingZeros(bits) ^ flip, orientation));
+        }
+
+        int value = tables[signature].get(TablebaseGenerator.HEADER_BYTES + index);
+        if (value == 0)
+            return 0;
+        return value > 0 ? MATE - value : -(MATE - TablebaseGenerator.plies(value));
+    }
+
+    /**
+     * @return how many plies a probe result that isn't a draw says it is to mate
+     */
+    public static int plies(int value)
+    {
+        return MATE - Math.abs(value);
+    }
+
+    //nothing at all, or one bishop or knight
+    private static boolean isLoneMinor(int signature)
+    {
+        return signature == 0
+                || signature == 1 << (TablebaseMaterial.typeSlot(2) * 2)
+                || signature == 1 << (TablebaseMaterial.typeSlot(3) * 2);
+    }
+}
@@ -0,0 +1,423 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Solves endgames of a king and up to three pieces against a bare king (KQK, KRK, KPK, KBNK
+ * and the like) and writes the distance to mate of every position to a file a
+ * {@link Tablebase} can read
+ * <p>
+ * The solving works backward from the end of the game. First every checkmate and stalemate
+ * is marked. Then each pass settles the positions one ply further from mate: on odd passes
+ * the strong side wins wherever it has a move into a loss the last pass found, and on even
+ * passes the bare king loses wherever every one of its moves leads into a win. Whatever is
+ * left when the passes stop finding anything is a draw. Captures and promotions leave the
+ * table, so the tables they lead to are solved first and read directly.
+ * <p>
+ * Each position is one byte: 0 for a draw (or an impossible position), the plies to mate
+ * when the side to move wins, and minus one more than the plies to mate when it loses.
+ * <p>
+ * Running main writes the tables named on the command line (KQK, KRK, KPK and KBNK if none
+ * are) into a directory: {@code TablebaseGenerator <directory> [material...]}.
+ */
+public final class TablebaseGenerator {
+
+    static final int MAGIC = 0x31425443; //"CTB1" in a little-endian file
+    static final int HEADER_BYTES = 12; //magic, material signature, position count
+
+    private static final int MAX_MOVES = 128;
+    private static final int PAWN = 5;
+    private static final int[] PROMOTIONS = {1, 4, 2, 3}; //queen, rook, bishop, knight
+
+    private final Map<String, byte[]> solved = new HashMap<>();
+
+    /**
+     * Solves one set of material, along with any it can turn into through a capture or promotion
+     *
+     * @param material a name like "KBNK"
+     * @return the value of every position, numbered as described in {@link TablebaseMaterial}
+     */
+    public byte[] generate(String material)
+    {
+        return generate(TablebaseMaterial.parse(material));
+    }
+
+    byte[] generate(TablebaseMaterial material)
+    {
+        byte[] values = solved.get(material.name);
+        if (values == null)
+        {
+            values = new Solver(material).solve();
+            solved.put(material.name, values);
+        }
+        return values;
+    }
+
+    /**
+     * Solves a set of material if it hasn't been already and writes its table into the
+     * directory, named after the material ("KBNK.tb")
+     *
+     * @return the file written
+     */
+    public Path write(String material, Path directory) throws IOException
+    {
+        TablebaseMaterial parsed = TablebaseMaterial.parse(material);
+        byte[] values = generate(parsed);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(parsed.signature).putInt(values.length);
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(parsed.name + Tablebase.EXTENSION);
+        byte[] contents = new byte[HEADER_BYTES + values.length];
+        System.arraycopy(header.array(), 0, contents, 0, HEADER_BYTES);
+        System.arraycopy(values, 0, contents, HEADER_BYTES, values.length);
+        Files.write(file, contents);
+        return file;
+    }
+
+    static byte win(int plies)
+    {
+        if (plies > Byte.MAX_VALUE)
+            throw new RuntimeException("distance to mate doesn't fit in a table entry");
+        return (byte) plies;
+    }
+
+    static byte loss(int plies)
+    {
+        if (plies + 1 > -Byte.MIN_VALUE)
+            throw new RuntimeException("distance to mate doesn't fit in a table entry");
+        return (byte) -(plies + 1);
+    }
+
+    //the plies to mate stored in an entry that isn't a draw
+    static int plies(int value)
+    {
+        return value > 0 ? value : -value - 1;
+    }
+
+    /**
+     * Solves the tables named on the command line and writes them into a directory
+     * <p>
+     * Arguments: directory [material...]
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.out.println("usage: TablebaseGenerator <directory> [material...]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        String[] materials = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length)
+                : new String[]{"KQK", "KRK", "KPK", "KBNK"};
+
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (String material : materials)
+        {
+            long start = System.nanoTime();
+            Path file = generator.write(material, directory);
+            byte[] values = generator.generate(material);
+            int longest = 0;
+            for (byte value : values)
+            {
+                if (value > 0)
+                    longest = Math.max(longest, value);
+            }
+            System.out.printf("%-6s %,12d positions, longest mate %d plies, %.1f s -> %s%n", material,
+                    values.length, longest, (System.nanoTime() - start) / 1e9, file);
+        }
+    }
+
+    //the work of solving one table, with the scratch space it needs
+    private final class Solver {
+
+        private final TablebaseMaterial material;
+        private final int pieceCount;
+        private final byte[] values;
+        private final boolean[] done;
+        private final int[] squares;
+        private final int[] children = new int[MAX_MOVES];
+
+        //what each piece turns the table into when it's captured, or when a pawn promotes to each of
+        //PROMOTIONS, and those tables' values (null when nothing can mate)
+        private final TablebaseMaterial[] captured;
+        private final TablebaseMaterial[][] promoted;
+        private final byte[][] capturedValues;
+        private final byte[][][] promotedValues;
+        private final int[][] otherSquares = new int[TablebaseMaterial.MAX_PIECES + 3][];
+        private int longestOther; //the longest mate in any of those tables
+
+        Solver(TablebaseMaterial material) {
+            this.material = material;
+            pieceCount = material.pieces.length;
+            values = new byte[material.size];
+            done = new boolean[material.size];
+            squares = new int[2 + pieceCount];
+            for (int i = 0; i < otherSquares.length; i++)
+                otherSquares[i] = new int[i];
+
+            captured = new TablebaseMaterial[pieceCount];
+            promoted = new TablebaseMaterial[pieceCount][PROMOTIONS.length];
+            capturedValues = new byte[pieceCount][];
+            promotedValues = new byte[pieceCount][PROMOTIONS.length][];
+            for (int i = 0; i < pieceCount; i++)
+            {
+                captured[i] = material.without(i);
+                capturedValues[i] = prepare(captured[i]);
+                if (material.pieces[i] == PAWN)
+                {
+                    for (int p = 0; p < PROMOTIONS.length; p++)
+                    {
+                        promoted[i][p] = material.replace(i, PROMOTIONS[p]);
+                        promotedValues[i][p] = prepare(promoted[i][p]);
+                    }
+                }
+            }
+        }
+
+        //solves a table a capture or promotion leads to, so its values are there to read
+        private byte[] prepare(TablebaseMaterial other)
+        {
+            if (other.isDrawn())
+                return null;
+            byte[] otherValues = generate(other);
+            for (byte value : otherValues)
+            {
+                if (value != 0)
+                    longestOther = Math.max(longestOther, plies(value));
+            }
+            return otherValues;
+        }
+
+        byte[] solve()
+        {
+            //mark the impossible positions, the checkmates and the stalemates
+            for (int index = 0; index < values.length; index++)
+            {
+                int toMove = material.decode(index, squares);
+                if (!isLegal(toMove))
+                    done[index] = true;
+                else if (children(toMove) == 0)
+                {
+                    done[index] = true;
+                    values[index] = inCheck() ? loss(0) : 0;
+                }
+            }
+
+            //wins come on odd plies for the strong side, losses on even plies for the bare king
+            int half = values.length / 2;
+            int quietPasses = 0;
+            for (int pass = 1; quietPasses < 2 || pass <= longestOther + 1; pass++)
+            {
+                int toMove = pass % 2 == 1 ? 0 : 1;
+                int settled = 0;
+                for (int index = toMove * half; index < (toMove + 1) * half; index++)
+                {
+                    if (done[index])
+                        continue;
+                    material.decode(index, squares);
+                    int count = children(toMove);
+                    if (toMove == 0 ? wins(count, pass) : loses(count, pass))
+                    {
+                        values[index] = toMove == 0 ? win(pass) : loss(pass);
+                        done[index] = true;
+                        settled++;
+                    }
+                }
+                quietPasses = settled == 0 ? quietPasses + 1 : 0;
+            }
+            return values;
+        }
+
+        //whether one of the moves leads to a loss for the opponent in one ply less
+        private boolean wins(int count, int pass)
+        {
+            int target = -pass; //the entry for a loss in pass - 1 plies
+            for (int i = 0; i < count; i++)
+            {
+                if (children[i] == target)
+                    return true;
+            }
+            return false;
+        }
+
+        //whether every move leads to a win for the opponent, the slowest of them in one ply less
+        private boolean loses(int count, int pass)
+        {
+            int longest = 0;
+            for (int i = 0; i < count; i++)
+            {
+                if (children[i] <= 0)
+                    return false;
+                longest = Math.max(longest, children[i]);
+            }
+            return longest == pass - 1;
+        }
+
+        private long occupancy()
+        {
+            long occupied = 0L;
+            for (int square : squares)
+                occupied |= 1L << square;
+            return occupied;
+        }
+
+        private boolean isLegal(int toMove)
+        {
+            if (Long.bitCount(occupancy()) != squares.length)
+                return false; //two pieces on one square
+            if ((Bitboards.kingAttacks(squares[0]) & 1L << squares[1]) != 0)
+                return false;
+            return toMove == 1 || !inCheck(); //the bare king can't be in check with the strong side to move
+        }
+
+        private boolean inCheck()
+        {
+            return attacked(squares[1], occupancy(), -1);
+        }
+
+        //whether any of the strong side's pieces other than skip attack the square (the king isn't counted)
+        private boolean attacked(int target, long occupied, int skip)
+        {
+            for (int i = 0; i < pieceCount; i++)
+            {
+                if (i != skip && (attacks(material.pieces[i], squares[2 + i], occupied) & 1L << target) != 0)
+                    return true;
+            }
+            return false;
+        }
+
+        private long attacks(int type, int square, long occupied)
+        {
+            return switch (type)
+            {
+                case 1 -> Bitboards.queenAttacks(square, occupied);
+                case 2 -> Bitboards.bishopAttacks(square, occupied);
+                case 3 -> Bitboards.knightAttacks(square);
+                case 4 -> Bitboards.rookAttacks(square, occupied);
+                default -> Bitboards.pawnAttacks(0, square);
+            };
+        }
+
+        /**
+         * Fills children with the value of the position after each legal move from the
+         * position in squares (which is left as it was)
+         *
+         * @return how many legal moves there are
+         */
+        private int children(int toMove)
+        {
+            int strongKing = squares[0];
+            int bareKing = squares[1];
+            long occupied = occupancy();
+            int count = 0;
+
+            if (toMove == 0)
+            {
+                for (long targets = Bitboards.kingAttacks(strongKing) & ~occupied & ~Bitboards.kingAttacks(bareKing); targets != 0; targets &= targets - 1)
+                {
+                    squares[0] = Long.numberOfTrailingZeros(targets);
+                    children[count++] = values[material.index(1, squares)];
+                }
+                squares[0] = strongKing;
+
+                for (int i = 0; i < pieceCount; i++)
+                {
+                    int from = squares[2 + i];
+                    if (material.pieces[i] == PAWN)
+                    {
+                        int to = from + 8;
+                        if ((occupied & 1L << to) != 0)
+                            continue;
+                        if (to >= 56)
+                        {
+                            for (int p = 0; p < PROMOTIONS.length; p++)
+                                children[count++] = otherValue(promoted[i][p], promotedValues[i][p], 1, i, PROMOTIONS[p], to);
+                            continue;
+                        }
+                        squares[2 + i] = to;
+                        children[count++] = values[material.index(1, squares)];
+                        if (from < 16 && (occupied & 1L << (to + 8)) == 0)
+                        {
+                            squares[2 + i] = to + 8;
+                            children[count++] = values[material.index(1, squares)];
+                        }
+                    }
+                    else
+                    {
+                        for (long targets = attacks(material.pieces[i], from, occupied) & ~occupied; targets != 0; targets &= targets - 1)
+                        {
+                            squares[2 + i] = Long.numberOfTrailingZeros(targets);
+                            children[count++] = values[material.index(1, squares)];
+                        }
+                    }
+                    squares[2 + i] = from;
+                }
+                return count;
+            }
+
+            //the bare king can go anywhere the strong side doesn't guard, looking through where it stands now
+            long seen = occupied & ~(1L << bareKing);
+            long targets = Bitboards.kingAttacks(bareKing) & ~Bitboards.kingAttacks(strongKing);
+            for (; targets != 0; targets &= targets - 1)
+            {
+                int to = Long.numberOfTrailingZeros(targets);
+                int taken = -1;
+                for (int i = 0; i < pieceCount; i++)
+                {
+                    if (squares[2 + i] == to)
+                        taken = i;
+                }
+                if (attacked(to, seen, taken))
+                    continue;
+                squares[1] = to;
+                children[count++] = taken < 0 ? values[material.index(0, squares)] : otherValue(captured[taken], capturedValues[taken], 0, taken, -1, -1);
+                squares[1] = bareKing;
+            }
+            return count;
+        }
+
+        /**
+         * Reads the value of a position in another table, the one left after the piece at
+         * place is captured, or promotes to the given type on the given square
+         */
+        private int otherValue(TablebaseMaterial other, byte[] otherValues, int toMove, int place, int promotion, int promotionSquare)
+        {
+            if (otherValues == null)
+                return 0; //nothing left that can mate
+
+            //the pieces that are left (or made), put into the other table's order
+            int[] moved = otherSquares[2 + other.pieces.length];
+            moved[0] = squares[0];
+            moved[1] = squares[1];
+            int used = 1 << place;
+            for (int j = 0; j < other.pieces.length; j++)
+            {
+                int type = other.pieces[j];
+                if (type == promotion)
+                {
+                    moved[2 + j] = promotionSquare;
+                    promotion = -1;
+                    continue;
+                }
+                for (int k = 0; k < pieceCount; k++)
+                {
+                    if ((used & 1 << k) == 0 && material.pieces[k] == type)
+                    {
+                        moved[2 + j] = squares[2 + k];
+                        used |= 1 << k;
+                        break;
+                    }
+                }
+            }
+            return otherValues[other.index(toMove, moved)];
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * One set of material a tablebase covers: a bare king against a king and up to three other
+ * pieces, such as KQK or KBNK, and the way its positions are numbered
+ * <p>
+ * Tables are always built with the strong side as white; a position where black has the
+ * pieces is looked up with the board flipped. The index is, from most to least significant:
+ * whose move it is (the strong side is 0), the strong king, the bare king, then each of the
+ * other pieces in name order (queens, rooks, bishops, knights, pawns). Without pawns the
+ * board is mirrored so the strong king sits in the a1-d1-d4 triangle, which leaves 10 king
+ * squares; with pawns it's only mirrored left to right (32 king squares), and pawns only
+ * get the 48 squares between rows 2 and 7.
+ */
+final class TablebaseMaterial {
+
+    static final int MAX_PIECES = 3; //besides the two kings
+    static final int SIGNATURES = 1 << 10; //two bits for the count of each type in TYPES
+
+    //piece types in name order, as PieceType ordinals, and their letters
+    static final int[] TYPES = {1, 4, 2, 3, 5};
+    private static final String LETTERS = "QRBNP";
+    private static final int PAWN = 5;
+
+    //each square's place among the 10 triangle squares (or -1), and the square at each place
+    private static final int[] TRIANGLE = new int[64];
+    private static final int[] TRIANGLE_SQUARES = {0, 1, 2, 3, 9, 10, 11, 18, 19, 27};
+
+    static {
+        Arrays.fill(TRIANGLE, -1);
+        for (int i = 0; i < TRIANGLE_SQUARES.length; i++)
+            TRIANGLE[TRIANGLE_SQUARES[i]] = i;
+    }
+
+    final String name;
+    final int[] pieces; //the strong side's pieces besides the king, as PieceType ordinals in name order
+    final boolean pawns;
+    final int signature;
+    final int size; //how many positions the table holds
+    private final int kingSquares;
+
+    private TablebaseMaterial(int[] pieces) {
+        this.pieces = pieces;
+        StringBuilder builder = new StringBuilder("K");
+        boolean hasPawn = false;
+        int sig = 0;
+        long positions = 1;
+        for (int type : pieces)
+        {
+            builder.append(LETTERS.charAt(typeSlot(type)));
+            hasPawn |= type == PAWN;
+            sig += 1 << (typeSlot(type) * 2);
+            positions *= type == PAWN ? 48 : 64;
+        }
+        name = builder.append('K').toString();
+        pawns = hasPawn;
+        signature = sig;
+        kingSquares = pawns ? 32 : 10;
+        size = (int) (positions * 2 * kingSquares * 64);
+    }
+
+    /**
+     * @param name the material as a string like "KBNK": the strong king, its pieces in any order, then the bare king
+     */
+    static TablebaseMaterial parse(String name)
+    {
+        if (!name.startsWith("K") || !name.endsWith("K") || name.length() < 3 || name.length() > MAX_PIECES + 2)
+            throw new RuntimeException("not a king and pieces against a bare king: " + name);
+        int[] counts = new int[TYPES.length];
+        for (int i = 1; i < name.length() - 1; i++)
+        {
+            int slot = LETTERS.indexOf(name.charAt(i));
+            if (slot < 0)
+                throw new RuntimeException("unknown piece letter in " + name);
+            counts[slot]++;
+        }
+        return of(counts);
+    }
+
+    //the material with the given count of each type in TYPES
+    static TablebaseMaterial of(int[] counts)
+    {
+        int total = 0;
+        for (int count : counts)
+            total += count;
+        int[] pieces = new int[total];
+        int next = 0;
+        for (int slot = 0; slot < TYPES.length; slot++)
+        {
+            for (int i = 0; i < counts[slot]; i++)
+                pieces[next++] = TYPES[slot];
+        }
+        return new TablebaseMaterial(pieces);
+    }
+
+    //where a PieceType ordinal falls in TYPES
+    static int typeSlot(int type)
+    {
+        for (int slot = 0; slot < TYPES.length; slot++)
+        {
+            if (TYPES[slot] == type)
+                return slot;
+        }
+        throw new RuntimeException("kings aren't counted in a material signature");
+    }
+
+    /**
+     * @return the same material without the piece at the given place in {@link #pieces}, as after it's captured
+     */
+    TablebaseMaterial without(int index)
+    {
+        return replace(index, -1);
+    }
+
+    /**
+     * @return the same material with the piece at the given place turned into another type, as after a promotion
+     */
+    TablebaseMaterial replace(int index, int type)
+    {
+        int[] counts = new int[TYPES.length];
+        for (int i = 0; i < pieces.length; i++)
+        {
+            int pieceType = i == index ? type : pieces[i];
+            if (pieceType >= 0)
+                counts[typeSlot(pieceType)]++;
+        }
+        return of(counts);
+    }
+
+    /**
+     * @return whether no position with this material can end in mate (a bare king, or a lone bishop or knight)
+     */
+    boolean isDrawn()
+    {
+        return pieces.length == 0 || (pieces.length == 1 && (pieces[0] == 2 || pieces[0] == 3));
+    }
+
+    /**
+     * @return how the board has to be mirrored to bring the strong king into its part of the board:
+     * the low bits are xor'd into every square, and bit 6 says to flip along the a1-h8 diagonal after that
+     */
+    int orientation(int strongKing)
+    {
+        int mirror = (strongKing & 7) > 3 ? 7 : 0;
+        if (pawns)
+            return mirror;
+        if ((strongKing >>> 3) > 3)
+            mirror |= 56;
+        int king = strongKing ^ mirror;
+        return (king >>> 3) > (king & 7) ? mirror | 64 : mirror;
+    }
+
+    static int orient(int square, int orientation)
+    {
+        square ^= orientation & 63;
+        return (orientation & 64) == 0 ? square : (square & 7) << 3 | square >>> 3;
+    }
+
+    /**
+     * Numbers a position, which doesn't have to be in the table's part of the board
+     *
+     * @param strongToMove 0 if the strong side is to move, 1 if the bare king is
+     * @param squares the strong king, the bare king, then the other pieces in {@link #pieces} order
+     */
+    int index(int strongToMove, int[] squares)
+    {
+        int orientation = orientation(squares[0]);
+        int index = kingsIndex(strongToMove, squares[0], squares[1], orientation);
+        for (int i = 0; i < pieces.length; i++)
+            index = addPiece(index, i, orient(squares[2 + i], orientation));
+        return index;
+    }
+
+    //the start of an index: whose move it is and where the kings are, before they're oriented
+    int kingsIndex(int strongToMove, int strongKing, int bareKing, int orientation)
+    {
+        int king = orient(strongKing, orientation);
+        int index = strongToMove * kingSquares + (pawns ? (king >>> 3) * 4 + (king & 7) : TRIANGLE[king]);
+        return index * 64 + orient(bareKing, orientation);
+    }
+
+    //folds the piece at the given place in pieces into a partly built index
+    int addPiece(int index, int piece, int square)
+    {
+        return pieces[piece] == PAWN ? index * 48 + square - 8 : index * 64 + square;
+    }
+
+    /**
+     * Turns an index back into a position, in the table's part of the board
+     *
+     * @param squares filled in the same order {@link #index} takes them
+     * @return 0 if the strong side is to move, 1 if the bare king is
+     */
+    int decode(int index, int[] squares)
+    {
+        for (int i = pieces.length - 1; i >= 0; i--)
+        {
+            if (pieces[i] == PAWN)
+            {
+                squares[2 + i] = index % 48 + 8;
+                index /= 48;
+            }
+            else
+            {
+                squares[2 + i] = index & 63;
+                index >>>= 6;
+            }
+        }
+        squares[1] = index & 63;
+        index >>>= 6;
+        int king = index % kingSquares;
+        squares[0] = pawns ? (king / 4) * 8 + king % 4 : TRIANGLE_SQUARES[king];
+        return index / kingSquares;
+    }
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,44 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing
+ * <p>
+ * A position's key is the XOR of one key per piece on each square, plus keys for the
+ * side to move, the castling rights and the en passant file. Because XOR undoes itself,
+ * the board can update its key as pieces come and go instead of rehashing everything.
+ */
+public final class Zobrist {
+
+    static final long[][] PIECE_SQUARE = new long[12][64]; //by piece code, then square
+    static final long[][] PAWN_SQUARE = new long[12][64]; //the same keys for pawns and 0 for everything else, for the pawn key
+    static final long BLACK_TO_MOVE;
+    static final long[] CASTLING = new long[16]; //one per combination of castling rights
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        long[] seed = {0x2545F4914F6CDD1DL}; //fixed seed, so keys are the same every run
+        for (int code = 0; code < 12; code++)
+        {
+            for (int square = 0; square < 64; square++)
+                PIECE_SQUARE[code][square] = next(seed);
+            if (code % 6 == ChessPiece.PieceType.PAWN.ordinal())
+                PAWN_SQUARE[code] = PIECE_SQUARE[code];
+        }
+        BLACK_TO_MOVE = next(seed);
+        for (int rights = 0; rights < 16; rights++)
+            CASTLING[rights] = next(seed);
+        for (int file = 0; file < 8; file++)
+            EN_PASSANT_FILE[file] = next(seed);
+    }
+
+    private Zobrist() {}
+
+    //splitmix64 step
+    private static long next(long[] seed)
+    {
+        long z = (seed[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,15 @@
+package chess.engine;
+
+import chess.ChessBoard;
+
+/**
+ * Scores a position for the search
+ */
+public interface Evaluator {
+
+    /**
+     * @param board the position to score
+     * @return the score in centipawns from the point of view of the side to move (positive is good for them)
+     */
+    int evaluate(ChessBoard board);
+}
@@ -0,0 +1,39 @@
+package chess.engine;
+
+/**
+ * The loops at the heart of {@link NnueEvaluator}, with a plain version and one that uses the
+ * Vector API when the JVM has it
+ * <p>
+ * Both give the same answers: int16 sums wrap around the same way in either, and the output
+ * layer's products always fit in 16 bits since the hidden values are clipped to 0-255 and
+ * the weights are int8.
+ */
+interface Kernels {
+
+    /**
+     * Adds one input's weights (starting at offset) into an accumulator, lane by lane
+     */
+    void add(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Subtracts one input's weights (starting at offset) from an accumulator, lane by lane
+     */
+    void subtract(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * @return the sum of each clipped accumulator value times its output weight, with the side
+     * to move's accumulator using the first half of the weights and the other side's the second
+     */
+    int output(short[] us, short[] them, short[] weights);
+
+    /**
+     * @return the vector kernels if the JVM was started with the Vector API, otherwise the plain ones
+     */
+    static Kernels best()
+    {
+        //jdk.incubator.vector is only there when the JVM is run with --add-modules jdk.incubator.vector
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+            return new VectorKernels();
+        return new ScalarKernels();
+    }
+}
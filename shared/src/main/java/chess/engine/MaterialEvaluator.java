@@ -0,0 +1,28 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Counts up the material on each side, and nothing else
+ */
+public class MaterialEvaluator implements Evaluator {
+
+    //centipawn value of each piece type, in PieceType order (the king isn't counted)
+    static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    @Override
+    public int evaluate(ChessBoard board)
+    {
+        int score = 0;
+        for (int type = 1; type < VALUES.length; type++)
+        {
+            score += VALUES[type] * (Long.bitCount(board.pieces(ChessGame.TeamColor.WHITE, TYPES[type]))
+                    - Long.bitCount(board.pieces(ChessGame.TeamColor.BLACK, TYPES[type])));
+        }
+        return board.getSideToMove() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
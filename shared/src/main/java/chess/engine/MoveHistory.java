@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.PackedMove;
+
+/**
+ * What a search has learned about quiet moves, for trying the ones likely to cause a cutoff
+ * first: two killer moves per ply, a history score for each piece and target square, and a
+ * counter move for each move the opponent can make
+ * <p>
+ * Everything is kept in flat int arrays indexed by piece code and target square, so looking
+ * a move up is one array read.
+ */
+final class MoveHistory {
+
+    static final int MAX_SCORE = 16384; //history scores stay between plus and minus this
+
+    private final int[][] killers = new int[Search.MAX_PLY][2]; //quiet moves that caused a cutoff at each ply, newest first
+    private final int[] history = new int[12 * 64];
+    private final int[] counters = new int[12 * 64]; //the quiet reply that refuted each move
+
+    /**
+     * @return how often the move has been good lately, up to {@link #MAX_SCORE}
+     */
+    int score(int move)
+    {
+        return history[index(move)];
+    }
+
+    int killer(int ply, int slot)
+    {
+        return killers[ply][slot];
+    }
+
+    /**
+     * @return the reply that last refuted the opponent's previous move, or {@link PackedMove#NONE}
+     */
+    int counter(int previousMove)
+    {
+        return previousMove == PackedMove.NONE ? PackedMove.NONE : counters[index(previousMove)];
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff: it becomes a killer for the ply and the
+     * counter to the previous move, its history goes up, and the history of the quiet moves
+     * tried before it (which didn't cut off) goes down
+     */
+    void cutoff(int move, int previousMove, int ply, int depth, int[] quietsTried, int quietCount)
+    {
+        if (killers[ply][0] != move)
+        {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (previousMove != PackedMove.NONE)
+            counters[index(previousMove)] = move;
+
+        int bonus = Math.min(depth * depth, 1200);
+        update(move, bonus);
+        for (int i = 0; i < quietCount; i++)
+            update(quietsTried[i], -bonus);
+    }
+
+    /**
+     * Forgets the killers and halves the history, so a new search leans on what it learns itself
+     */
+    void newSearch()
+    {
+        for (int[] slots : killers)
+        {
+            slots[0] = PackedMove.NONE;
+            slots[1] = PackedMove.NONE;
+        }
+        for (int i = 0; i < history.length; i++)
+            history[i] /= 2;
+    }
+
+    //moves the score toward the bonus, by less the closer it already is to the limit, so scores never run away
+    private void update(int move, int bonus)
+    {
+        int i = index(move);
+        history[i] += bonus - history[i] * Math.abs(bonus) / MAX_SCORE;
+    }
+
+    private static int index(int move)
+    {
+        return PackedMove.movedPiece(move) * 64 + PackedMove.to(move);
+    }
+}
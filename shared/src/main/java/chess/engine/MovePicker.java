@@ -0,0 +1,239 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Hands out the moves of a position one at a time, best guesses first, generating them in
+ * stages so a cutoff early on saves generating the rest
+ * <p>
+ * The order is: the move from the transposition table, captures and promotions that don't
+ * lose material ({@link ChessBoard#staticExchange(int)}) by most valuable victim and least
+ * valuable attacker, the two killer moves, the counter move, the quiet moves by history score,
+ * and last the captures that lose material. The quiescence search skips losing captures
+ * altogether. The table move, killers and counter move are checked
+ * for legality and played without generating anything, and the quiet moves are only generated
+ * if none of the moves before them caused a cutoff. In check, every evasion is generated at
+ * once and ordered the same way.
+ * <p>
+ * A search keeps one picker per ply and starts it again for each position.
+ */
+final class MovePicker {
+
+    private static final int TABLE_MOVE = 0;
+    private static final int GENERATE_TACTICAL = 1;
+    private static final int TACTICAL = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int COUNTER_MOVE = 5;
+    private static final int GENERATE_QUIET = 6;
+    private static final int QUIET = 7;
+    private static final int LOSING_TACTICAL = 8;
+    private static final int GENERATE_EVASIONS = 9;
+    private static final int EVASIONS = 10;
+    private static final int DONE = 11;
+
+    private static final int TACTICAL_SCORE = 1_000_000; //evasions that capture or promote go before every quiet one
+    private static final int KILLER_SCORE = 900_000;
+
+    private final MoveHistory history;
+    private final MoveList moves = new MoveList();
+    private final MoveList scratch = new MoveList(); //for checking a killer's legality without touching moves
+    private final int[] scores = new int[MoveList.DEFAULT_CAPACITY];
+    private final int[] losing = new int[MoveList.DEFAULT_CAPACITY]; //tactical moves put off because they lose material
+    private int losingCount;
+    private int losingIndex;
+
+    private ChessBoard board;
+    private int stage;
+    private int index;
+    private boolean tacticalOnly;
+    private int tableMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int counterMove;
+
+    MovePicker(MoveHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Starts on a position in the main search, where every move will be tried
+     *
+     * @param tableMove the best move stored for the position, or {@link PackedMove#NONE}
+     * @param previousMove the move that led here, for the counter move, or {@link PackedMove#NONE}
+     */
+    void start(ChessBoard board, boolean inCheck, int tableMove, int ply, int previousMove)
+    {
+        this.board = board;
+        this.tableMove = tableMove;
+        tacticalOnly = false;
+        firstKiller = history.killer(ply, 0);
+        secondKiller = history.killer(ply, 1);
+        counterMove = history.counter(previousMove);
+        losingCount = 0;
+        losingIndex = 0;
+        stage = inCheck ? GENERATE_EVASIONS : TABLE_MOVE;
+    }
+
+    /**
+     * Starts on a position in the quiescence search: only captures and promotions, or every
+     * evasion when in check
+     */
+    void startTactical(ChessBoard board, boolean inCheck)
+    {
+        this.board = board;
+        tableMove = PackedMove.NONE;
+        tacticalOnly = true;
+        firstKiller = PackedMove.NONE;
+        secondKiller = PackedMove.NONE;
+        counterMove = PackedMove.NONE;
+        losingCount = 0;
+        losingIndex = 0;
+        stage = inCheck ? GENERATE_EVASIONS : GENERATE_TACTICAL;
+    }
+
+    /**
+     * @return the next move to try, or {@link PackedMove#NONE} when there are no more
+     */
+    int next()
+    {
+        while (true)
+        {
+            switch (stage)
+            {
+                case TABLE_MOVE:
+                    stage = GENERATE_TACTICAL;
+                    if (tableMove != PackedMove.NONE && MoveGenerator.isLegal(board, tableMove, scratch))
+                        return tableMove;
+                    tableMove = PackedMove.NONE; //not playable here, so nothing needs skipping later
+                    break;
+                case GENERATE_TACTICAL:
+                    generate(MoveGenerator.TACTICAL);
+                    stage = TACTICAL;
+                    break;
+                case TACTICAL:
+                    if (index < moves.size())
+                    {
+                        int move = pick();
+                        if (move == tableMove)
+                            break;
+                        if (board.staticExchange(move) >= 0)
+                            return move;
+                        if (!tacticalOnly)
+                            losing[losingCount++] = move; //tried after the quiet moves; quiescence drops it
+                        break;
+                    }
+                    stage = tacticalOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    stage = SECOND_KILLER;
+                    if (playableQuiet(firstKiller))
+                        return firstKiller;
+                    firstKiller = PackedMove.NONE;
+                    break;
+                case SECOND_KILLER:
+                    stage = COUNTER_MOVE;
+                    if (secondKiller != firstKiller && playableQuiet(secondKiller))
+                        return secondKiller;
+                    secondKiller = PackedMove.NONE;
+                    break;
+                case COUNTER_MOVE:
+                    stage = GENERATE_QUIET;
+                    if (counterMove != firstKiller && counterMove != secondKiller && playableQuiet(counterMove))
+                        return counterMove;
+                    counterMove = PackedMove.NONE;
+                    break;
+                case GENERATE_QUIET:
+                    generate(MoveGenerator.QUIET);
+                    stage = QUIET;
+                    break;
+                case QUIET:
+                    if (index < moves.size())
+                    {
+                        int move = pick();
+                        if (move != tableMove && move != firstKiller && move != secondKiller && move != counterMove)
+                            return move;
+                        break;
+                    }
+                    stage = LOSING_TACTICAL;
+                    break;
+                case LOSING_TACTICAL:
+                    if (losingIndex < losingCount)
+                        return losing[losingIndex++];
+                    stage = DONE;
+                    break;
+                case GENERATE_EVASIONS:
+                    generate(MoveGenerator.ALL);
+                    stage = EVASIONS;
+                    break;
+                case EVASIONS:
+                    if (index < moves.size())
+                        return pick();
+                    stage = DONE;
+                    break;
+                default:
+                    return PackedMove.NONE;
+            }
+        }
+    }
+
+    /**
+     * @return whether a move is a quiet one (it captures nothing and doesn't promote)
+     */
+    static boolean isQuiet(int move)
+    {
+        return !PackedMove.isCapture(move) && PackedMove.promotion(move) == 0;
+    }
+
+    //a killer or counter move is only tried early if it's quiet, legal here, and not the table move
+    private boolean playableQuiet(int move)
+    {
+        return move != PackedMove.NONE && move != tableMove && isQuiet(move) && MoveGenerator.isLegal(board, move, scratch);
+    }
+
+    private void generate(int kinds)
+    {
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), kinds, moves);
+        for (int i = 0; i < moves.size(); i++)
+            scores[i] = score(moves.get(i));
+        index = 0;
+    }
+
+    //the best move first, then captures with the most valuable victim and least valuable attacker, then the rest
+    private int score(int move)
+    {
+        if (move == tableMove)
+            return Integer.MAX_VALUE;
+        if (PackedMove.isCapture(move))
+            return TACTICAL_SCORE + 10 * MaterialEvaluator.VALUES[PackedMove.capturedPiece(move) % 6]
+                    - MaterialEvaluator.VALUES[PackedMove.movedPiece(move) % 6] / 10;
+        if (PackedMove.promotion(move) != 0)
+            return TACTICAL_SCORE - 1000 + MaterialEvaluator.VALUES[PackedMove.promotion(move)];
+        if (move == firstKiller || move == secondKiller)
+            return KILLER_SCORE;
+        return history.score(move);
+    }
+
+    //swaps the highest scored move left into the next slot and returns it, so moves are sorted only as far as they're used
+    private int pick()
+    {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++)
+        {
+            if (scores[i] > scores[best])
+                best = i;
+        }
+        int move = moves.get(best);
+        moves.set(best, moves.get(index));
+        moves.set(index, move);
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        index++;
+        return move;
+    }
+}
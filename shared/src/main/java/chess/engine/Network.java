@@ -0,0 +1,133 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The quantized weights of a small efficiently updatable neural network (NNUE) for
+ * {@link NnueEvaluator}
+ * <p>
+ * The network has 768 inputs for each side's point of view (one per piece code and square,
+ * with the board flipped for black), a hidden layer of int16 neurons shared by both points of
+ * view, and one output. The output layer reads the side to move's hidden layer and then the
+ * other side's, each clipped to 0-{@value #CLIP}, through int8 weights.
+ * <p>
+ * A network file is little endian: the magic number, the hidden layer size, the int16 input
+ * weights (768 rows of one weight per hidden neuron), the int16 hidden biases, the int8 output
+ * weights (the side to move's half, then the other side's) and the int32 output bias.
+ */
+public final class Network {
+
+    static final int INPUTS = 768;
+    static final int CLIP = 255; //hidden neurons are clipped to 0-CLIP before the output layer
+    static final int OUTPUT_SCALE = 64; //output weights are quantized to this many steps per unit
+    static final int EVAL_SCALE = 400; //centipawns per unit of the network's output
+
+    private static final int MAGIC = 0x45554E4E; //"NNUE" as little endian bytes
+
+    final int hidden;
+    final short[] inputWeights; //INPUTS rows of hidden weights each, so one input's weights sit together
+    final short[] hiddenBiases;
+    final short[] outputWeights; //int8 values, widened so the dense layer can multiply them in int16 lanes
+    final int outputBias;
+
+    private Network(int hidden, short[] inputWeights, short[] hiddenBiases, short[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.inputWeights = inputWeights;
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Reads a network from a file in the format described above
+     */
+    public static Network load(Path file) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+            throw new RuntimeException(file + " isn't a network file");
+        int hidden = buffer.getInt();
+        if (hidden <= 0 || buffer.remaining() != fileSize(hidden) - 8)
+            throw new RuntimeException(file + " is the wrong size for a network");
+
+        short[] inputWeights = new short[INPUTS * hidden];
+        short[] hiddenBiases = new short[hidden];
+        short[] outputWeights = new short[2 * hidden];
+        buffer.asShortBuffer().get(inputWeights).get(hiddenBiases);
+        buffer.position(buffer.position() + 2 * (inputWeights.length + hiddenBiases.length));
+        for (int i = 0; i < outputWeights.length; i++)
+            outputWeights[i] = buffer.get();
+        return new Network(hidden, inputWeights, hiddenBiases, outputWeights, buffer.getInt());
+    }
+
+    /**
+     * Writes the network to a file that {@link #load} can read back
+     */
+    public void save(Path file) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(fileSize(hidden)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(hidden);
+        buffer.asShortBuffer().put(inputWeights).put(hiddenBiases);
+        buffer.position(buffer.position() + 2 * (inputWeights.length + hiddenBiases.length));
+        for (short weight : outputWeights)
+            buffer.put((byte) weight);
+        buffer.putInt(outputBias);
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Makes a network with small random weights. It doesn't play well, but it's the right shape
+     * for testing and timing the evaluator without a trained network.
+     *
+     * @param hidden how many neurons the hidden layer has
+     * @param seed the seed for the weights, so the same seed gives the same network
+     */
+    public static Network random(int hidden, long seed)
+    {
+        if (hidden <= 0)
+            throw new RuntimeException("a network needs at least one hidden neuron");
+        Random random = new Random(seed);
+        short[] inputWeights = new short[INPUTS * hidden];
+        short[] hiddenBiases = new short[hidden];
+        short[] outputWeights = new short[2 * hidden];
+        for (int i = 0; i < inputWeights.length; i++)
+            inputWeights[i] = (short) (random.nextInt(129) - 64);
+        for (int i = 0; i < hidden; i++)
+            hiddenBiases[i] = (short) random.nextInt(128);
+        for (int i = 0; i < outputWeights.length; i++)
+            outputWeights[i] = (short) (random.nextInt(256) - 128);
+        return new Network(hidden, inputWeights, hiddenBiases, outputWeights, random.nextInt(1024) - 512);
+    }
+
+    /**
+     * @return how many neurons the hidden layer has
+     */
+    public int hiddenSize()
+    {
+        return hidden;
+    }
+
+    //the input for a piece seen from one side: the team is "ours" or "theirs" and black sees the board flipped
+    static int input(int perspective, int code, int square)
+    {
+        if (perspective == 0)
+            return code * 64 + square;
+        return (code + 6) % 12 * 64 + (square ^ 56);
+    }
+
+    //turns the output layer's sum into centipawns
+    int centipawns(int sum)
+    {
+        return (int) ((long) (sum + outputBias) * EVAL_SCALE / (CLIP * OUTPUT_SCALE));
+    }
+
+    private static int fileSize(int hidden)
+    {
+        return 8 + 2 * (INPUTS * hidden + hidden) + 2 * hidden + 4;
+    }
+}
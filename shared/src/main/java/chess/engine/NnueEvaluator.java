@@ -0,0 +1,75 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceListener;
+
+/**
+ * Scores positions with a {@link Network}, keeping the network's hidden layer (the
+ * accumulators, one for each side's point of view) up to date as pieces move instead of
+ * working it out from scratch for every position
+ * <p>
+ * The first time it evaluates a board the evaluator sets itself as that board's
+ * {@link PieceListener}, and from then on each piece the board adds or removes (including by
+ * making and unmaking moves) adds or subtracts one row of weights. An evaluation only runs the
+ * small output layer. Evaluating a different board moves the listener over to it, so it works
+ * best with one board at a time, as in a {@link Search}.
+ * <p>
+ * The loops use the Vector API when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, and plain loops with the same results otherwise.
+ * An evaluator keeps state, so use one per search thread; they can share a network.
+ */
+public class NnueEvaluator implements Evaluator, PieceListener {
+
+    private static final int LIMIT = Search.MATE - Search.MATE_RANGE - 1; //scores stay clear of the mate range
+
+    private final Network network;
+    private final Kernels kernels;
+    private final short[][] accumulators; //white's point of view, then black's
+    private ChessBoard board; //the board being followed
+
+    public NnueEvaluator(Network network) {
+        this(network, Kernels.best());
+    }
+
+    NnueEvaluator(Network network, Kernels kernels) {
+        this.network = network;
+        this.kernels = kernels;
+        accumulators = new short[2][network.hidden];
+    }
+
+    @Override
+    public int evaluate(ChessBoard board)
+    {
+        if (board != this.board)
+            follow(board);
+        int us = board.getSideToMove() == ChessGame.TeamColor.WHITE ? 0 : 1;
+        int sum = kernels.output(accumulators[us], accumulators[1 - us], network.outputWeights);
+        return Math.max(-LIMIT, Math.min(LIMIT, network.centipawns(sum)));
+    }
+
+    @Override
+    public void pieceAdded(int code, int square)
+    {
+        kernels.add(accumulators[0], network.inputWeights, Network.input(0, code, square) * network.hidden);
+        kernels.add(accumulators[1], network.inputWeights, Network.input(1, code, square) * network.hidden);
+    }
+
+    @Override
+    public void pieceRemoved(int code, int square)
+    {
+        kernels.subtract(accumulators[0], network.inputWeights, Network.input(0, code, square) * network.hidden);
+        kernels.subtract(accumulators[1], network.inputWeights, Network.input(1, code, square) * network.hidden);
+    }
+
+    //stops following the old board and builds the accumulators for the new one from its pieces
+    private void follow(ChessBoard board)
+    {
+        if (this.board != null)
+            this.board.setPieceListener(null);
+        System.arraycopy(network.hiddenBiases, 0, accumulators[0], 0, network.hidden);
+        System.arraycopy(network.hiddenBiases, 0, accumulators[1], 0, network.hidden);
+        this.board = board;
+        board.setPieceListener(this); //adds every piece already on the board
+    }
+}
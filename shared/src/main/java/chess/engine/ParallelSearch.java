@@ -0,0 +1,151 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Searches with several threads at once using Lazy SMP: every thread runs its own full
+ * {@link Search} of the same position, and they only cooperate through a shared
+ * {@link TranspositionTable}, each filling in results the others can use
+ * <p>
+ * The calling thread runs the main search and its result is the one returned. The other
+ * threads are helpers, and half of them search one ply deeper on each iteration than the main
+ * search while the rest search at its depth, so the threads spread out over two depths instead
+ * of all repeating each other's work. When the main search finishes, or {@link #stop()} is
+ * called, one shared signal stops every thread.
+ * <p>
+ * Only one search can run at a time on a ParallelSearch. Close it to shut down the helper threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final Search[] searches;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private final AtomicBoolean stopSignal = new AtomicBoolean();
+
+    /**
+     * @param threads how many threads to search with, counting the calling thread
+     */
+    public ParallelSearch(int threads) {
+        this(threads, Search.DEFAULT_TABLE_MB, PieceSquareEvaluator::new);
+    }
+
+    /**
+     * @param threads how many threads to search with, counting the calling thread
+     * @param tableMegabytes the memory budget for the shared transposition table
+     * @param evaluators makes one evaluator per thread, since an evaluator may keep state
+     */
+    public ParallelSearch(int threads, int tableMegabytes, Supplier<Evaluator> evaluators) {
+        if (threads < 1)
+            throw new RuntimeException("a search needs at least one thread");
+
+        table = new TranspositionTable(tableMegabytes);
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            searches[i] = new Search(evaluators.get(), table);
+            searches[i].shareStopSignal(stopSignal);
+            searches[i].depthOffset = i % 2; //every other helper runs a ply ahead
+        }
+        helpers = Executors.newFixedThreadPool(Math.max(1, threads - 1), runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true); //helpers shouldn't keep the server from shutting down
+            return thread;
+        });
+    }
+
+    /**
+     * Searches for the best move for the team whose turn it is, on every thread
+     *
+     * @param game the game to search (it is not changed, and shouldn't be while this runs)
+     * @param maxDepth the deepest iteration to run, or 0 for no limit
+     * @param timeMillis how long to search, or 0 for no limit
+     * @param maxNodes how many positions the main thread may search, or 0 for no limit
+     * @return the main thread's result, with the node count of every thread added up
+     */
+    public SearchResult search(ChessGame game, int maxDepth, long timeMillis, long maxNodes)
+    {
+        stopSignal.set(false);
+        table.newSearch();
+
+        List<Future<SearchResult>> running = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++)
+        {
+            Search helper = searches[i];
+            running.add(helpers.submit(() -> helper.run(game, maxDepth, 0, 0))); //stopped by the signal, not a budget
+        }
+
+        SearchResult main;
+        try {
+            main = searches[0].run(game, maxDepth, timeMillis, maxNodes);
+        } finally {
+            stopSignal.set(true); //the helpers are done once the main search is
+        }
+
+        long nodes = main.getNodes();
+        for (Future<SearchResult> helper : running)
+        {
+            try {
+                nodes += helper.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new RuntimeException("search helper failed", e.getCause());
+            }
+        }
+        return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes);
+    }
+
+    /**
+     * Ends a running search early (it may be called from any thread); the search still
+     * returns the result of the main thread's last finished iteration
+     */
+    public void stop()
+    {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Scores endgames the tablebase has tables for straight from it, on every thread
+     *
+     * @param tablebase the tablebase to consult, or null for none
+     */
+    public void setTablebase(Tablebase tablebase)
+    {
+        for (Search search : searches)
+            search.setTablebase(tablebase);
+    }
+
+    /**
+     * Forgets every stored search result, as for a new game
+     */
+    public void clear()
+    {
+        table.clear();
+    }
+
+    /**
+     * @return how many threads search at once
+     */
+    public int threads()
+    {
+        return searches.length;
+    }
+
+    @Override
+    public void close()
+    {
+        stop();
+        helpers.shutdownNow();
+    }
+}
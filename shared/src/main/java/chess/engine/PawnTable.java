@@ -0,0 +1,139 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores the pawn structure (doubled, isolated and passed pawns) and caches the result by the
+ * board's {@link ChessBoard#pawnKey()}
+ * <p>
+ * Pawns move far less often than everything else, so most positions a search reaches share
+ * their pawns with one it has already seen and the scores come straight out of the table.
+ * Each slot holds one position, and a new one just replaces whatever was there. A table isn't
+ * thread safe; each evaluator keeps its own.
+ */
+final class PawnTable {
+
+    //middlegame and endgame penalties for each doubled pawn (beyond the first on its file) and each isolated pawn
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -25;
+    private static final int ISOLATED_MIDDLEGAME = -12;
+    private static final int ISOLATED_ENDGAME = -18;
+
+    //bonus for a passed pawn by how far it's come (its row counted from its own side, 0-7)
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 45, 70, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] AHEAD = new long[2][64]; //squares in front of a pawn on its file, by team
+    private static final long[][] PASSED = new long[2][64]; //squares in front of a pawn on its file and the next ones over
+
+    static {
+        for (int file = 0; file < 8; file++)
+            FILES[file] = 0x0101010101010101L << file;
+        for (int file = 0; file < 8; file++)
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        for (int square = 0; square < 64; square++)
+        {
+            int row = square >>> 3;
+            long above = row < 7 ? -1L << (8 * (row + 1)) : 0L;
+            long below = (1L << (8 * row)) - 1;
+            long file = FILES[square & 7];
+            long files = file | ADJACENT_FILES[square & 7];
+            AHEAD[0][square] = above & file;
+            AHEAD[1][square] = below & file;
+            PASSED[0][square] = above & files;
+            PASSED[1][square] = below & files;
+        }
+    }
+
+    private final long[] keys;
+    private final int[] middlegame; //positive for white
+    private final int[] endgame;
+    private final int mask; //slot count minus one
+    private long probes;
+    private long hits;
+
+    /**
+     * @param entries how many pawn structures to keep; it's rounded down to a power of two
+     */
+    PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        middlegame = new int[size];
+        endgame = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @return the pawn structure score in centipawns, blended by the game phase like the
+     * piece-square score, positive when white's pawns are better
+     */
+    int score(ChessBoard board)
+    {
+        long key = board.pawnKey();
+        int index = (int) key & mask;
+        probes++;
+        //an empty slot reads as key 0 with a score of 0, which is also the right answer for a board with no pawns
+        if (keys[index] == key)
+            hits++;
+        else
+        {
+            long white = board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+            long black = board.pieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+            keys[index] = key;
+            middlegame[index] = 0;
+            endgame[index] = 0;
+            evaluate(index, 0, white, black, 1);
+            evaluate(index, 1, black, white, -1);
+        }
+        int phase = board.gamePhase();
+        return (middlegame[index] * phase + endgame[index] * (ChessBoard.MAX_PHASE - phase)) / ChessBoard.MAX_PHASE;
+    }
+
+    long probes()
+    {
+        return probes;
+    }
+
+    long hits()
+    {
+        return hits;
+    }
+
+    //adds one team's pawn terms into the slot, with sign 1 for white and -1 for black
+    private void evaluate(int index, int team, long ours, long theirs, int sign)
+    {
+        int mg = 0;
+        int eg = 0;
+        for (int file = 0; file < 8; file++)
+        {
+            int count = Long.bitCount(ours & FILES[file]);
+            if (count > 1)
+            {
+                mg += DOUBLED_MIDDLEGAME * (count - 1);
+                eg += DOUBLED_ENDGAME * (count - 1);
+            }
+        }
+        for (long pawns = ours; pawns != 0; pawns &= pawns - 1)
+        {
+            int square = Long.numberOfTrailingZeros(pawns);
+            if ((ours & ADJACENT_FILES[square & 7]) == 0)
+            {
+                mg += ISOLATED_MIDDLEGAME;
+                eg += ISOLATED_ENDGAME;
+            }
+            //passed: nothing of theirs can stop it, and it isn't stuck behind one of our own
+            if ((theirs & PASSED[team][square]) == 0 && (ours & AHEAD[team][square]) == 0)
+            {
+                int advanced = team == 0 ? square >>> 3 : 7 - (square >>> 3);
+                mg += PASSED_MIDDLEGAME[advanced];
+                eg += PASSED_ENDGAME[advanced];
+            }
+        }
+        middlegame[index] += sign * mg;
+        endgame[index] += sign * eg;
+    }
+}
@@ -0,0 +1,27 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Scores material plus where each piece stands, shifting from middlegame to endgame values as
+ * pieces come off the board, plus the pawn structure
+ * <p>
+ * The board keeps the piece-square score up to date itself as moves are made and unmade
+ * (see {@link ChessBoard#pieceSquareScore()}), and pawn structure scores are cached in a
+ * {@link PawnTable}, so evaluating most positions takes a couple of lookups. The evaluator
+ * keeps its own pawn table, so use one per search thread.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+
+    private static final int PAWN_TABLE_ENTRIES = 1 << 14;
+
+    final PawnTable pawns = new PawnTable(PAWN_TABLE_ENTRIES);
+
+    @Override
+    public int evaluate(ChessBoard board)
+    {
+        int score = board.pieceSquareScore() + pawns.score(board);
+        return board.getSideToMove() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,35 @@
+package chess.engine;
+
+/**
+ * {@link Kernels} as plain loops, for JVMs started without the Vector API
+ */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset)
+    {
+        for (int i = 0; i < accumulator.length; i++)
+            accumulator[i] += weights[offset + i];
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset)
+    {
+        for (int i = 0; i < accumulator.length; i++)
+            accumulator[i] -= weights[offset + i];
+    }
+
+    @Override
+    public int output(short[] us, short[] them, short[] weights)
+    {
+        return dot(us, weights, 0) + dot(them, weights, us.length);
+    }
+
+    private static int dot(short[] accumulator, short[] weights, int offset)
+    {
+        int sum = 0;
+        for (int i = 0; i < accumulator.length; i++)
+            sum += Math.max(0, Math.min(accumulator[i], Network.CLIP)) * weights[offset + i];
+        return sum;
+    }
+}
@@ -0,0 +1,322 @@
+package chess.engine;
+
+import chess.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Picks a move with an iterative deepening negamax alpha-beta search
+ * <p>
+ * Each iteration searches one move deeper than the last, trying the previous best move
+ * first, until the depth, time or node budget runs out; the move from the last finished
+ * iteration is the answer. Leaf positions are settled with a quiescence search over
+ * captures so the evaluation isn't taken in the middle of an exchange.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, so a position reached again (in a later
+ * iteration or through a different move order) can reuse its score or at least try its best
+ * move first. With a {@link Tablebase} set, endgames it has tables for are scored from the
+ * tables instead of searched. Moves come from a {@link MovePicker}, which tries the table move, then captures,
+ * then the quiet moves that caused cutoffs elsewhere in the tree ({@link MoveHistory}).
+ * <p>
+ * The search plays moves on its own copy of the board with make/unmake and one move
+ * picker per ply, so it doesn't allocate while it runs. A Search isn't thread safe; use
+ * one per thread (they can share a transposition table).
+ */
+public class Search {
+
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000; //mate scores are MATE minus the plies to mate
+
+    static final int MAX_PLY = 128;
+    static final int MATE_RANGE = 2 * MAX_PLY; //room for a tablebase mate (under 128 plies) found at any ply
+    static final int DEFAULT_TABLE_MB = 16;
+    private static final int CHECK_INTERVAL = 2047; //how many nodes go by between clock checks (one less than a power of 2)
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveHistory history = new MoveHistory();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    private final int[] played = new int[MAX_PLY]; //the move made at each ply of the current line
+    private final int[][] quietsTried = new int[MAX_PLY][MoveList.DEFAULT_CAPACITY]; //quiet moves searched at each ply without a cutoff
+
+    private ChessBoard board;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean stopped;
+    private int previousBest; //best root move from the last finished iteration, searched first
+    private int iterationBest; //best root move so far in the current iteration
+    private AtomicBoolean stopSignal = new AtomicBoolean(); //set from outside to end the search early
+    private Tablebase tablebase; //consulted below the root, if there is one
+    int depthOffset; //helper threads in a parallel search search this much deeper each iteration
+
+    public Search() {
+        this(new PieceSquareEvaluator());
+    }
+
+    public Search(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param table where to keep search results; it can be shared with other searches
+     */
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int i = 0; i < MAX_PLY; i++)
+            pickers[i] = new MovePicker(history);
+    }
+
+    /**
+     * Searches for the best move for the team whose turn it is
+     *
+     * @param game the game to search (it is not changed)
+     * @param maxDepth the deepest iteration to run, or 0 for no limit
+     * @param timeMillis how long to search, or 0 for no limit
+     * @param maxNodes how many positions to search, or 0 for no limit
+     * @return the result of the deepest iteration that finished
+     */
+    public SearchResult search(ChessGame game, int maxDepth, long timeMillis, long maxNodes)
+    {
+        stopSignal.set(false);
+        table.newSearch();
+        return run(game, maxDepth, timeMillis, maxNodes);
+    }
+
+    /**
+     * Ends a running search as soon as it next checks in (it may be called from any thread);
+     * the search still returns the result of its last finished iteration
+     */
+    public void stop()
+    {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Scores endgames the tablebase has tables for straight from it, without searching them
+     *
+     * @param tablebase the tablebase to consult, or null for none
+     */
+    public void setTablebase(Tablebase tablebase)
+    {
+        this.tablebase = tablebase;
+    }
+
+    //lets a parallel search stop all of its threads with one signal
+    void shareStopSignal(AtomicBoolean signal)
+    {
+        stopSignal = signal;
+    }
+
+    //the search itself, without starting a new table generation or clearing the stop signal
+    SearchResult run(ChessGame game, int maxDepth, long timeMillis, long maxNodes)
+    {
+        board = new ChessBoard(game.getBoard());
+        board.setSideToMove(game.getTeamTurn());
+        nodes = 0;
+        nodeLimit = maxNodes > 0 ? maxNodes : Long.MAX_VALUE;
+        deadline = timeMillis > 0 ? System.nanoTime() + timeMillis * 1_000_000L : Long.MAX_VALUE;
+        stopped = false;
+        previousBest = PackedMove.NONE;
+        history.newSearch();
+        int depthLimit = maxDepth > 0 ? Math.min(maxDepth, MAX_PLY - 1) : MAX_PLY - 1;
+
+        int bestScore = 0;
+        int finishedDepth = 0;
+        for (int iteration = 1; iteration <= depthLimit; iteration++)
+        {
+            int depth = Math.min(iteration + depthOffset, depthLimit);
+            iterationBest = PackedMove.NONE;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (stopped && previousBest != PackedMove.NONE)
+                break; //a cut-off iteration isn't trusted, the last finished one is used
+            previousBest = iterationBest;
+            bestScore = score;
+            finishedDepth = depth;
+            if (stopped || previousBest == PackedMove.NONE || isMateScore(score) || depth == depthLimit)
+                break; //out of budget, no legal moves, or a forced mate already found
+        }
+
+        if (previousBest == PackedMove.NONE)
+        {
+            //the budget ran out before any move was scored, so any legal move will have to do
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            if (!moves.isEmpty())
+                previousBest = moves.get(0);
+        }
+        ChessMove best = previousBest == PackedMove.NONE ? null : PackedMove.toChessMove(previousBest);
+        return new SearchResult(best, bestScore, finishedDepth, nodes);
+    }
+
+    /**
+     * @return the best move found in the given time, or null if there are no legal moves
+     */
+    public ChessMove bestMove(ChessGame game, long timeMillis)
+    {
+        return search(game, 0, timeMillis, 0).getBestMove();
+    }
+
+    /**
+     * @return whether a score means a forced mate for one side
+     */
+    public static boolean isMateScore(int score)
+    {
+        return Math.abs(score) >= MATE - MATE_RANGE;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta)
+    {
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || board.isRepetition()))
+            return 0; //draw by the fifty move rule or repetition
+
+        if (ply > 0 && tablebase != null)
+        {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.UNKNOWN)
+                return tablebaseScore(value, ply);
+        }
+
+        ChessGame.TeamColor side = board.getSideToMove();
+        boolean inCheck = MoveGenerator.inCheck(board, side);
+        if (inCheck)
+            depth++; //don't stop the search while in check
+        if (depth <= 0 || ply >= MAX_PLY - 1)
+            return quiescence(ply, alpha, beta);
+
+        countNode();
+        if (stopped)
+            return 0;
+
+        //a deep enough stored result can answer for this position outright (never at the root, which needs a move)
+        long key = board.zobristKey();
+        long entry = table.probe(key);
+        int tableMove = PackedMove.NONE;
+        if (entry != 0)
+        {
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth)
+            {
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha))
+                    return score;
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        int previousMove = ply == 0 ? PackedMove.NONE : played[ply - 1];
+        picker.start(board, inCheck, ply == 0 ? previousBest : tableMove, ply, previousMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        int searched = 0;
+        int quiets = 0;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE)
+        {
+            played[ply] = move;
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            searched++;
+            if (stopped)
+                return 0;
+
+            if (score > best)
+            {
+                best = score;
+                bestMove = move;
+                if (ply == 0)
+                    iterationBest = move;
+            }
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta)
+            {
+                if (MovePicker.isQuiet(move))
+                    history.cutoff(move, previousMove, ply, depth, quietsTried[ply], quiets);
+                break; //the opponent won't allow this line
+            }
+            if (MovePicker.isQuiet(move))
+                quietsTried[ply][quiets++] = move;
+        }
+        if (searched == 0)
+            return inCheck ? -MATE + ply : 0; //checkmate or stalemate
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bound == TranspositionTable.UPPER ? PackedMove.NONE : bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    //a tablebase result as a search score, with mates counted from the root
+    private static int tablebaseScore(int value, int ply)
+    {
+        if (value == 0)
+            return 0;
+        int plies = ply + Tablebase.plies(value);
+        return value > 0 ? MATE - plies : -MATE + plies;
+    }
+
+    //keeps searching captures until the position is quiet, so it can be evaluated
+    private int quiescence(int ply, int alpha, int beta)
+    {
+        countNode();
+        if (stopped)
+            return 0;
+        if (ply >= MAX_PLY - 1)
+            return evaluator.evaluate(board); //out of room for another ply
+
+        ChessGame.TeamColor side = board.getSideToMove();
+        boolean inCheck = MoveGenerator.inCheck(board, side);
+        int best = -INFINITY;
+        if (!inCheck)
+        {
+            //standing pat: the side to move doesn't have to capture, so the evaluation is a lower bound
+            best = evaluator.evaluate(board);
+            if (best >= beta)
+                return best;
+            if (best > alpha)
+                alpha = best;
+        }
+
+        //in check every evasion is searched, otherwise only captures and promotions
+        MovePicker picker = pickers[ply];
+        picker.startTactical(board, inCheck);
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE)
+        {
+            board.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            searched++;
+            if (stopped)
+                return 0;
+
+            if (score > best)
+                best = score;
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta)
+                break;
+        }
+        if (inCheck && searched == 0)
+            return -MATE + ply;
+        return best;
+    }
+
+    private void countNode()
+    {
+        nodes++;
+        if ((nodes & CHECK_INTERVAL) == 0 && (stopSignal.get() || System.nanoTime() > deadline))
+            stopped = true;
+        if (nodes >= nodeLimit)
+            stopped = true;
+    }
+}
@@ -0,0 +1,53 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * What a search found: the move to play and what it thinks of the position
+ */
+public class SearchResult {
+
+    final ChessMove bestMove;
+    final int score;
+    final int depth;
+    final long nodes;
+
+    SearchResult(ChessMove bestMove, int score, int depth, long nodes) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return the best move found, or null if the side to move has no legal moves
+     */
+    public ChessMove getBestMove()
+    {
+        return bestMove;
+    }
+
+    /**
+     * @return the score in centipawns for the side to move, or a mate score (see {@link Search#isMateScore})
+     */
+    public int getScore()
+    {
+        return score;
+    }
+
+    /**
+     * @return the deepest iteration that finished
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * @return how many positions were searched
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+}
@@ -0,0 +1,158 @@
+package chess.engine;
+
+import chess.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, keyed by Zobrist key, that any number of
+ * search threads can share without locking
+ * <p>
+ * Each slot is two longs in one flat array: the key xor'd with the data, then the data.
+ * Threads read and write the two halves with plain (unsynchronized) accesses, so a slot
+ * can be caught half written; a probe only returns the data if xor-ing the halves gives
+ * back the key it asked for, which throws out both torn slots and other positions that
+ * landed in the same slot.
+ * <p>
+ * The data long packs the best move (bits 0-26, a {@link PackedMove}), the score
+ * (27-42, signed), the depth (43-50), the bound type (51-52) and the search generation
+ * it was stored in (53-58).
+ */
+public class TranspositionTable {
+
+    public static final int LOWER = 1; //the score is at least this (the search failed high)
+    public static final int UPPER = 2; //the score is at most this (the search failed low)
+    public static final int EXACT = 3;
+
+    private static final int SCORE_SHIFT = 27;
+    private static final int DEPTH_SHIFT = 43;
+    private static final int BOUND_SHIFT = 51;
+    private static final int AGE_SHIFT = 53;
+
+    private final long[] slots;
+    private final int mask; //slot count minus one, for turning a key into a slot index
+    private int age;
+
+    /**
+     * @param megabytes the most memory the table may use; it's rounded down to a power of two slots
+     */
+    public TranspositionTable(int megabytes) {
+        long slotCount = Long.highestOneBit(Math.max(1L, megabytes * 1024L * 1024L / 16));
+        if (slotCount > 1 << 29)
+            throw new RuntimeException("transposition table can't be bigger than 8192 MB");
+        slots = new long[(int) slotCount * 2];
+        mask = (int) slotCount - 1;
+    }
+
+    /**
+     * @return how many positions the table can hold
+     */
+    public int capacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from older searches are replaced first
+     */
+    public void newSearch()
+    {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear()
+    {
+        Arrays.fill(slots, 0L);
+        age = 0;
+    }
+
+    /**
+     * @return the data stored for the position (read it with the static getters), or 0 if there's none
+     */
+    public long probe(long key)
+    {
+        int index = slotIndex(key);
+        long check = slots[index];
+        long data = slots[index + 1];
+        return (check ^ data) == key ? data : 0L;
+    }
+
+    /**
+     * Stores a search result, replacing what's in the slot unless that's a deeper search
+     * of the same position from this search
+     *
+     * @param move the best move found, or {@link PackedMove#NONE}
+     * @param score the score, with mate scores counted from the current ply
+     * @param ply how far the position is from the root, so mate scores can be stored relative to it
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply)
+    {
+        int index = slotIndex(key);
+        long oldData = slots[index + 1];
+        boolean samePosition = (slots[index] ^ oldData) == key;
+        if (samePosition && age(oldData) == age && depth < depth(oldData) && bound != EXACT)
+            return; //keeps the deeper result
+        if (samePosition && move == PackedMove.NONE)
+            move = move(oldData); //a fail-low has no best move, so the old one is still the best guess
+
+        long data = (move & 0x7FFFFFFL)
+                | ((long) (toStored(score, ply) & 0xFFFF) << SCORE_SHIFT)
+                | ((long) Math.max(0, Math.min(depth, 255)) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    public static int move(long data)
+    {
+        return (int) (data & 0x7FFFFFF);
+    }
+
+    /**
+     * @return the stored score, with mate scores turned back into distance from the given ply
+     */
+    public static int score(long data, int ply)
+    {
+        int stored = (short) (data >>> SCORE_SHIFT); //the cast brings back the sign
+        if (stored >= Search.MATE - Search.MATE_RANGE)
+            return stored - ply;
+        if (stored <= -Search.MATE + Search.MATE_RANGE)
+            return stored + ply;
+        return stored;
+    }
+
+    public static int depth(long data)
+    {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data)
+    {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int age(long data)
+    {
+        return (int) (data >>> AGE_SHIFT) & 63;
+    }
+
+    //mate scores are stored as distance from this position instead of from the root, so they stay right when reached another way
+    private static int toStored(int score, int ply)
+    {
+        if (score >= Search.MATE - Search.MATE_RANGE)
+            return score + ply;
+        if (score <= -Search.MATE + Search.MATE_RANGE)
+            return score - ply;
+        return score;
+    }
+
+    //the upper bits of the key pick the slot; each slot takes two longs
+    private int slotIndex(long key)
+    {
+        return (int) (key >>> 32 & mask) << 1;
+    }
+}
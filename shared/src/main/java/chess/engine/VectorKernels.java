@@ -0,0 +1,73 @@
+package chess.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Kernels} written with the Vector API, so each step works on as many int16 lanes as
+ * the CPU's widest vectors hold
+ * <p>
+ * This class can only be loaded when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}; {@link Kernels#best()} checks for that first.
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, SHORTS.vectorShape()); //half as many lanes
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset)
+    {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length())
+        {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++)
+            accumulator[i] += weights[offset + i];
+    }
+
+    @Override
+    public void subtract(short[] accumulator, short[] weights, int offset)
+    {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length())
+        {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < accumulator.length; i++)
+            accumulator[i] -= weights[offset + i];
+    }
+
+    @Override
+    public int output(short[] us, short[] them, short[] weights)
+    {
+        return dot(us, weights, 0) + dot(them, weights, us.length);
+    }
+
+    private static int dot(short[] accumulator, short[] weights, int offset)
+    {
+        IntVector sums = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = SHORTS.loopBound(accumulator.length); i < bound; i += SHORTS.length())
+        {
+            //the clipped value times an int8 weight fits in 16 bits, so only the running sum needs widening
+            ShortVector products = ShortVector.fromArray(SHORTS, accumulator, i)
+                    .max((short) 0)
+                    .min((short) Network.CLIP)
+                    .mul(ShortVector.fromArray(SHORTS, weights, offset + i));
+            sums = sums.add(products.convertShape(VectorOperators.S2I, INTS, 0))
+                    .add(products.convertShape(VectorOperators.S2I, INTS, 1));
+        }
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < accumulator.length; i++)
+            sum += Math.max(0, Math.min(accumulator[i], Network.CLIP)) * weights[offset + i];
+        return sum;
+    }
+}
@@ -0,0 +1,40 @@
+package chess.json;
+
+import chess.ChessBoard;
+import chess.Fen;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a board as its position in FEN, like "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+ */
+class BoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException
+    {
+        out.value(Fen.toString(board));
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException
+    {
+        ChessBoard board = new ChessBoard();
+        load(in.nextString(), board);
+        return board;
+    }
+
+    //sets up a board from FEN read out of JSON, as a parse error if it isn't a position
+    static void load(String fen, ChessBoard board)
+    {
+        try {
+            Fen.load(fen, board);
+        } catch (RuntimeException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package chess.json;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The one Gson everything should serialize chess state with
+ * <p>
+ * Left to reflection, Gson writes a board as every array it keeps for move generation and
+ * undo: the bitboards, the 64 square mailbox, the 12 by 64 piece lists, the 256 entry undo
+ * stacks and the Zobrist keys. The adapters here write a board as its FEN string,
+ * a move as its UCI string (like "e7e8q") and a game as an object holding its board's FEN,
+ * streaming straight to and from the JSON with no tree in between. Gson instances are thread
+ * safe and cache what they learn about each type, so sharing this one is both correct and
+ * faster than making new ones per request.
+ */
+public final class ChessJson {
+
+    public static final Gson GSON = register(new GsonBuilder()).create();
+
+    private ChessJson() {}
+
+    /**
+     * Adds the chess adapters to a builder, for when something needs its own Gson settings
+     */
+    public static GsonBuilder register(GsonBuilder builder)
+    {
+        return builder
+                .registerTypeAdapter(ChessBoard.class, new BoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter().nullSafe())
+                .registerTypeAdapter(ChessGame.class, new GameAdapter().nullSafe());
+    }
+}
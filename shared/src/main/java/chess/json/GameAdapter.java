@@ -0,0 +1,46 @@
+package chess.json;
+
+import chess.ChessGame;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a game as an object with its board's FEN, like {"board":"... w KQkq - 0 1"}, which
+ * already says whose turn it is; names it doesn't know are skipped when reading
+ */
+class GameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException
+    {
+        out.beginObject();
+        out.name("board").value(game.toFen());
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException
+    {
+        ChessGame game = null;
+        in.beginObject();
+        while (in.hasNext())
+        {
+            if (in.nextName().equals("board"))
+            {
+                game = new ChessGame();
+                BoardAdapter.load(in.nextString(), game.getBoard());
+                game.setTeamTurn(game.getBoard().getSideToMove());
+            }
+            else
+                in.skipValue();
+        }
+        in.endObject();
+        if (game == null)
+            throw new JsonParseException("Game without a board");
+        return game;
+    }
+}
@@ -0,0 +1,33 @@
+package chess.json;
+
+import chess.ChessMove;
+import chess.Notation;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a move in UCI notation, like "e2e4" or "e7e8q"
+ */
+class MoveAdapter extends TypeAdapter<ChessMove> {
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException
+    {
+        out.value(Notation.toUci(move));
+    }
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException
+    {
+        String uci = in.nextString();
+        try {
+            return Notation.fromUci(uci);
+        } catch (RuntimeException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+}
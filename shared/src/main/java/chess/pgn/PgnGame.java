@@ -0,0 +1,117 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.PackedMove;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One game read by a {@link PgnReader}: its tags, the moves it replayed, the position they
+ * lead to and the result written at the end
+ * <p>
+ * To keep reading fast, a reader hands the same PgnGame (and the same ChessGame inside it) to
+ * the callback for every game, refilled each time, so it is only good until the callback
+ * returns. Copy out whatever is needed past that.
+ */
+public class PgnGame {
+
+    final Map<String, String> tags = new LinkedHashMap<>();
+    final ChessGame game = new ChessGame();
+    int[] moves = new int[256]; //the replayed moves as PackedMoves
+    int plies;
+    String result;
+    String error;
+    long offset;
+
+    //empties everything out for the next game
+    void clear(long offset)
+    {
+        tags.clear();
+        plies = 0;
+        result = null;
+        error = null;
+        this.offset = offset;
+    }
+
+    void addMove(int move)
+    {
+        if (plies == moves.length)
+            moves = Arrays.copyOf(moves, plies * 2);
+        moves[plies++] = move;
+    }
+
+    /**
+     * @return the tags in the order they were read, like Event, White and Black
+     */
+    public Map<String, String> getTags()
+    {
+        return tags;
+    }
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String getTag(String name)
+    {
+        return tags.get(name);
+    }
+
+    /**
+     * @return the position after every move that was replayed, with the right team to move
+     */
+    public ChessGame getGame()
+    {
+        return game;
+    }
+
+    /**
+     * @return how many moves (of either team) were replayed
+     */
+    public int getPlies()
+    {
+        return plies;
+    }
+
+    /**
+     * @return a replayed move as a {@link PackedMove}
+     */
+    public int getPackedMove(int ply)
+    {
+        if (ply < 0 || ply >= plies)
+            throw new IndexOutOfBoundsException("ply " + ply + " of " + plies);
+        return moves[ply];
+    }
+
+    public ChessMove getMove(int ply)
+    {
+        return PackedMove.toChessMove(getPackedMove(ply));
+    }
+
+    /**
+     * @return the result at the end of the moves ("1-0", "0-1", "1/2-1/2" or "*"), or null if it was missing
+     */
+    public String getResult()
+    {
+        return result;
+    }
+
+    /**
+     * @return why the moves stopped being replayed before the end (a move that isn't legal or
+     * can't be read, or a bad FEN tag), or null if every move was replayed
+     */
+    public String getError()
+    {
+        return error;
+    }
+
+    /**
+     * @return where in the input the game starts, in bytes
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+}
@@ -0,0 +1,433 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.Fen;
+import chess.MoveList;
+import chess.Notation;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Reads games in Portable Game Notation, replaying each one's moves on a board and handing
+ * it to a callback as soon as it's read
+ * <p>
+ * Files are memory mapped and read straight out of the mapping a byte at a time, so a file of
+ * millions of games is never held in memory (or turned into Strings) as a whole; the only
+ * objects made per game are its tags. Moves in standard algebraic notation are read with
+ * {@link Notation} and played with {@link ChessBoard#makeMove(int)}.
+ * Comments, variations, annotation glyphs and move numbers are skipped over. A game with a
+ * move that can't be read or isn't legal is still handed over, with an error saying so and
+ * only the moves before it played.
+ * <p>
+ * {@link #readParallel} splits a file into chunks at game boundaries and reads the chunks on
+ * a fork/join pool, so there the callback is called from several threads at once and has to
+ * be thread safe.
+ */
+public final class PgnReader {
+
+    static final long SEGMENT_BYTES = 1L << 28; //how much of a file is mapped at once when reading in order
+    static final long CHUNK_BYTES = 1L << 22; //how much of a file each task reads in parallel
+
+    private static final int WINDOW_BYTES = 1 << 16; //how much is read at a time looking for a game boundary
+    private static final int LOOK_BACK = 3; //'[' can start a game after "\n\n" or "\n\r\n"
+
+    private final Consumer<PgnGame> handler;
+    private final PgnGame current = new PgnGame();
+    private final ChessBoard board = current.game.getBoard();
+    private final MoveList scratch = new MoveList(32); //for Notation to generate moves into
+    private byte[] text = new byte[64]; //a tag name or value being copied out
+    private ByteBuffer data;
+    private long base; //where the data starts in the whole input
+    private long games;
+
+    private PgnReader(Consumer<PgnGame> handler)
+    {
+        this.handler = handler;
+    }
+
+    /**
+     * Reads every game in a file, in order
+     *
+     * @return how many games there were
+     */
+    public static long read(Path file, Consumer<PgnGame> handler) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = split(channel, SEGMENT_BYTES);
+            PgnReader reader = new PgnReader(handler);
+            for (int i = 0; i + 1 < bounds.length; i++)
+                reader.parse(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]), bounds[i]);
+            return reader.games;
+        }
+    }
+
+    /**
+     * Reads every game between a buffer's position and limit, in order
+     *
+     * @return how many games there were
+     */
+    public static long read(ByteBuffer data, Consumer<PgnGame> handler)
+    {
+        PgnReader reader = new PgnReader(handler);
+        reader.parse(data.slice(), 0);
+        return reader.games;
+    }
+
+    /**
+     * Reads the games in a file on the common fork/join pool, calling the handler from
+     * several threads at once and in no particular order
+     *
+     * @return how many games there were
+     */
+    public static long readParallel(Path file, Consumer<PgnGame> handler) throws IOException
+    {
+        return readParallel(file, ForkJoinPool.commonPool(), handler);
+    }
+
+    /**
+     * Reads the games in a file on a fork/join pool, calling the handler from several threads
+     * at once and in no particular order
+     *
+     * @return how many games there were
+     */
+    public static long readParallel(Path file, ForkJoinPool pool, Consumer<PgnGame> handler) throws IOException
+    {
+        return readParallel(file, pool, handler, CHUNK_BYTES);
+    }
+
+    static long readParallel(Path file, ForkJoinPool pool, Consumer<PgnGame> handler, long chunkBytes) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = split(channel, chunkBytes);
+            return pool.invoke(new Chunks(channel, bounds, 0, bounds.length - 1, handler));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //reads the chunks between two bounds, splitting them in half until there's only one
+    @SuppressWarnings("serial") //tasks are never serialized, so the channel and handler needn't be serializable
+    private static final class Chunks extends RecursiveTask<Long> {
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int first;
+        private final int last;
+        private final Consumer<PgnGame> handler;
+
+        Chunks(FileChannel channel, long[] bounds, int first, int last, Consumer<PgnGame> handler)
+        {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+            this.handler = handler;
+        }
+
+        @Override
+        protected Long compute()
+        {
+            if (last - first <= 1)
+            {
+                if (last == first)
+                    return 0L;
+                PgnReader reader = new PgnReader(handler);
+                try {
+                    reader.parse(channel.map(FileChannel.MapMode.READ_ONLY, bounds[first], bounds[last] - bounds[first]), bounds[first]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return reader.games;
+            }
+            int middle = (first + last) >>> 1;
+            Chunks left = new Chunks(channel, bounds, first, middle, handler);
+            left.fork();
+            long right = new Chunks(channel, bounds, middle, last, handler).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * @return the offsets splitting a file into pieces of about the given size, each starting
+     * where a game does, from 0 through to the end of the file
+     */
+    static long[] split(FileChannel channel, long size) throws IOException
+    {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long end = channel.size();
+        long bound = 0;
+        while (end - bound > size)
+        {
+            bound = nextGame(channel, bound + size);
+            if (bound >= end)
+                break;
+            bounds.add(bound);
+        }
+        bounds.add(end);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    //where the first game starting at or after an offset starts, or the end of the file if none does
+    private static long nextGame(FileChannel channel, long offset) throws IOException
+    {
+        ByteBuffer window = ByteBuffer.allocate(WINDOW_BYTES);
+        long start = offset - LOOK_BACK;
+        while (true)
+        {
+            window.clear();
+            int read = channel.read(window, start);
+            if (read < 0)
+                return channel.size();
+            for (int i = LOOK_BACK; i < read; i++)
+            {
+                if (window.get(i) == '[' && startsLine(window, i))
+                    return start + i;
+            }
+            if (start + read >= channel.size())
+                return channel.size();
+            start += read - LOOK_BACK;
+        }
+    }
+
+    //whether a '[' comes after a blank line, which is how one game ends and the next begins
+    private static boolean startsLine(ByteBuffer data, int i)
+    {
+        if (data.get(i - 1) != '\n')
+            return false;
+        int j = i - 2;
+        if (data.get(j) == '\r')
+            j--;
+        return data.get(j) == '\n';
+    }
+
+    //reads all the games in some data, which starts at the given offset in the whole input
+    private void parse(ByteBuffer data, long base)
+    {
+        this.data = data;
+        this.base = base;
+        int end = data.limit();
+        int i = 0;
+        boolean started = false; //whether anything of the current game has been read
+        boolean moves = false; //whether its movetext has started
+
+        while (true)
+        {
+            i = skipSpaces(i, end);
+            if (i >= end)
+                break;
+            int c = data.get(i);
+            if (!started || (c == '[' && moves))
+            {
+                //a tag after the movetext means the last game never wrote a result
+                if (started)
+                    finish(null);
+                begin(i);
+                started = true;
+                moves = false;
+            }
+
+            if (c == '[')
+                i = tag(i + 1, end);
+            else if (c == '{')
+                i = skipPast(i + 1, end, '}');
+            else if (c == ';' || (c == '%' && (i == 0 || data.get(i - 1) == '\n')))
+                i = skipPast(i + 1, end, '\n');
+            else if (c == '(')
+                i = skipVariation(i + 1, end);
+            else if (c == ')' || c == '}')
+                i++;
+            else
+            {
+                int tokenEnd = tokenEnd(i, end);
+                if (isResult(i, tokenEnd))
+                {
+                    finish(new String(bytes(i, tokenEnd), 0, tokenEnd - i, StandardCharsets.US_ASCII));
+                    started = false;
+                }
+                else
+                    token(i, tokenEnd);
+                i = tokenEnd;
+            }
+            if (c != '[')
+                moves = true;
+        }
+        if (started)
+            finish(null);
+    }
+
+    //starts a new game at the standard starting position
+    private void begin(int offset)
+    {
+        current.clear(base + offset);
+        current.game.loadFen(Fen.START);
+    }
+
+    private void finish(String result)
+    {
+        current.result = result;
+        current.game.setTeamTurn(board.getSideToMove());
+        games++;
+        handler.accept(current);
+    }
+
+    //reads a tag from just after its '[' through its ']', returning where it ends
+    private int tag(int i, int end)
+    {
+        i = skipSpaces(i, end);
+        int nameStart = i;
+        while (i < end && (data.get(i) & 0xFF) > ' ' && data.get(i) != '"' && data.get(i) != ']')
+            i++;
+        String name = new String(bytes(nameStart, i), 0, i - nameStart, StandardCharsets.UTF_8);
+
+        while (i < end && data.get(i) != '"' && data.get(i) != ']' && data.get(i) != '\n')
+            i++;
+        int length = 0;
+        if (i < end && data.get(i) == '"')
+        {
+            for (i++; i < end && data.get(i) != '"'; i++)
+            {
+                byte b = data.get(i);
+                if (b == '\\' && i + 1 < end)
+                    b = data.get(++i);
+                if (length == text.length)
+                    text = Arrays.copyOf(text, length * 2);
+                text[length++] = b;
+            }
+        }
+        String value = new String(text, 0, length, StandardCharsets.UTF_8);
+        current.tags.put(name, value);
+        i = skipPast(i, end, ']');
+
+        if (name.equals("FEN") && current.error == null)
+        {
+            try {
+                current.game.loadFen(value);
+            } catch (RuntimeException e) {
+                current.error = e.getMessage();
+            }
+        }
+        return i;
+    }
+
+    //copies a run of the data into the text buffer
+    private byte[] bytes(int start, int end)
+    {
+        if (end - start > text.length)
+            text = new byte[Math.max(end - start, text.length * 2)];
+        data.get(start, text, 0, end - start);
+        return text;
+    }
+
+    //a move, a move number, or something else in the movetext
+    private void token(int start, int end)
+    {
+        //move numbers like "12." and "12..." can be written right up against the move
+        int i = start;
+        while (i < end && data.get(i) >= '0' && data.get(i) <= '9')
+            i++;
+        if (i > start && (i == end || data.get(i) == '.'))
+        {
+            while (i < end && data.get(i) == '.')
+                i++;
+            start = i;
+        }
+        while (start < end && data.get(start) == '.')
+            start++;
+        if (start == end || data.get(start) == '$' || current.error != null)
+            return;
+
+        int move = Notation.parseSan(board, bytes(start, end), 0, end - start, scratch);
+        if (move == PackedMove.NONE)
+        {
+            current.error = "Can't play " + new String(text, 0, end - start, StandardCharsets.UTF_8)
+                    + " after " + current.plies + " plies";
+            return;
+        }
+        board.makeMove(move);
+        current.addMove(move);
+    }
+
+    private boolean isResult(int start, int end)
+    {
+        return switch (end - start) {
+            case 1 -> data.get(start) == '*';
+            case 3 -> matches(start, "1-0") || matches(start, "0-1");
+            case 7 -> matches(start, "1/2-1/2");
+            default -> false;
+        };
+    }
+
+    private boolean matches(int start, String expected)
+    {
+        for (int i = 0; i < expected.length(); i++)
+        {
+            if (data.get(start + i) != expected.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    //where a token in the movetext ends
+    private int tokenEnd(int i, int end)
+    {
+        while (i < end)
+        {
+            int c = data.get(i) & 0xFF;
+            if (c <= ' ' || c == '{' || c == '}' || c == '(' || c == ')' || c == ';' || c == '[')
+                break;
+            i++;
+        }
+        return i;
+    }
+
+    private int skipSpaces(int i, int end)
+    {
+        while (i < end && (data.get(i) & 0xFF) <= ' ')
+            i++;
+        return i;
+    }
+
+    private int skipPast(int i, int end, char c)
+    {
+        while (i < end && data.get(i) != c)
+            i++;
+        return Math.min(i + 1, end);
+    }
+
+    //skips a variation, which can have variations and comments of its own
+    private int skipVariation(int i, int end)
+    {
+        int depth = 1;
+        while (i < end && depth > 0)
+        {
+            int c = data.get(i);
+            if (c == '{')
+                i = skipPast(i + 1, end, '}');
+            else if (c == ';')
+                i = skipPast(i + 1, end, '\n');
+            else
+            {
+                if (c == '(')
+                    depth++;
+                else if (c == ')')
+                    depth--;
+                i++;
+            }
+        }
+        return i;
+    }
+}
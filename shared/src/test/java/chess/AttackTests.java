@@ -0,0 +1,57 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AttackTests {
+
+    @Test
+    @DisplayName("Attackers Of A Square")
+    public void attackersTo()
+    {
+        ChessBoard board = ChessGame.fromFen("4k3/8/8/3n4/8/2P5/1Q6/4K2R w - - 0 1").getBoard();
+
+        //d4 is only hit by the pawn on c3 (it also blocks the queen's diagonal)
+        Assertions.assertEquals(1L << ChessBoard.square(3, 3), board.attackersTo(ChessGame.TeamColor.WHITE, new ChessPosition(4, 4)));
+        Assertions.assertEquals(0L, board.attackersTo(ChessGame.TeamColor.BLACK, new ChessPosition(4, 4)));
+
+        //the knight on d5 hits the pawn on c3
+        Assertions.assertEquals(1L << ChessBoard.square(5, 4), board.attackersTo(ChessGame.TeamColor.BLACK, ChessBoard.square(3, 3)));
+
+        //the rook on h1 sees f1, but the king blocks it from d1
+        Assertions.assertEquals(1L << ChessBoard.square(1, 8) | 1L << ChessBoard.square(1, 5),
+                board.attackersTo(ChessGame.TeamColor.WHITE, new ChessPosition(1, 6)));
+        Assertions.assertEquals(1L << ChessBoard.square(1, 5), board.attackersTo(ChessGame.TeamColor.WHITE, new ChessPosition(1, 4)));
+        Assertions.assertTrue(board.isAttacked(ChessGame.TeamColor.WHITE, new ChessPosition(1, 6)));
+        Assertions.assertFalse(board.isAttacked(ChessGame.TeamColor.WHITE, new ChessPosition(8, 1)));
+    }
+
+    @Test
+    @DisplayName("Double Check Is Two Attackers")
+    public void doubleCheck()
+    {
+        //knight and rook both give check
+        ChessBoard board = ChessGame.fromFen("4k3/8/3N4/8/8/8/8/4RK2 b - - 0 1").getBoard();
+        long checkers = board.attackersTo(ChessGame.TeamColor.WHITE, board.kingSquare(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(2, Long.bitCount(checkers));
+    }
+
+    @Test
+    @DisplayName("Fast Path Agrees With The Mask")
+    public void isAttackedMatches()
+    {
+        for (Perft.Position position : Perft.Position.values())
+        {
+            ChessBoard board = position.toGame().getBoard();
+            for (int square = 0; square < 64; square++)
+            {
+                for (ChessGame.TeamColor team : new ChessGame.TeamColor[]{ChessGame.TeamColor.WHITE, ChessGame.TeamColor.BLACK})
+                {
+                    Assertions.assertEquals(board.attackersTo(team, square) != 0, board.isAttacked(team, square),
+                            "isAttacked disagrees on square " + square + " in " + position);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ExchangeTests {
+
+    //the move is written from square, to square and an optional promotion letter, like e7e8q
+    private int exchange(String fen, String move)
+    {
+        ChessBoard board = ChessGame.fromFen(fen).getBoard();
+        ChessPosition start = ChessPosition.of(move.charAt(1) - '0', move.charAt(0) - 'a' + 1);
+        ChessPosition end = ChessPosition.of(move.charAt(3) - '0', move.charAt(2) - 'a' + 1);
+        ChessPiece.PieceType promotion = move.length() > 4 ? ChessPiece.PieceType.QUEEN : null;
+        long before = board.zobristKey();
+        int result = board.staticExchange(new ChessMove(start, end, promotion));
+        Assertions.assertEquals(before, board.zobristKey(), "Exchange evaluation shouldn't change the board");
+        return result;
+    }
+
+    @Test
+    @DisplayName("Free Capture")
+    public void freeCapture()
+    {
+        Assertions.assertEquals(100, exchange("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1e5"));
+    }
+
+    @Test
+    @DisplayName("Losing Exchange With X-Rays")
+    public void xrays()
+    {
+        //Nxe5 Nxe5 Rxe5 Bxe5 and the queen behind the rook would win the bishop, but black's queen behind the bishop takes back
+        Assertions.assertEquals(-220, exchange("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3e5"));
+    }
+
+    @Test
+    @DisplayName("Defended Pieces")
+    public void defended()
+    {
+        //the queen takes a pawn defended by a pawn
+        Assertions.assertEquals(100 - 900, exchange("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", "d2d5"));
+        //a pawn takes a defended knight, which is still worth it
+        Assertions.assertEquals(320 - 100, exchange("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5"));
+        //the second rook backs up the first, so white keeps the rook it won whether black takes back or not
+        Assertions.assertEquals(500, exchange("3rk3/8/8/3r4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+    }
+
+    @Test
+    @DisplayName("King Only Takes Undefended Pieces")
+    public void kingCaptures()
+    {
+        Assertions.assertEquals(100, exchange("4k3/8/8/8/8/8/4p3/4K3 w - - 0 1", "e1e2"));
+        //the rook that takes back is left alone with the king, so the king takes it
+        Assertions.assertEquals(100, exchange("4k3/4r3/8/8/8/8/4p3/4RK2 w - - 0 1", "e1e2"));
+        //with the bishop also covering the square, the king can't take back
+        Assertions.assertEquals(100 - 500, exchange("4k3/4r3/8/1b6/8/8/4p3/4RK2 w - - 0 1", "e1e2"));
+        Assertions.assertEquals(100 - 900 + 320, exchange("4k3/8/8/8/8/2n5/4p3/4QK2 w - - 0 1", "e1e2"));
+    }
+
+    @Test
+    @DisplayName("Quiet Moves And Promotions")
+    public void quietAndPromotion()
+    {
+        Assertions.assertEquals(0, exchange("4k3/8/8/8/8/8/8/R3K3 w - - 0 1", "a1a5"), "A safe move loses nothing");
+        Assertions.assertEquals(-500, exchange("4k3/8/8/1p6/8/8/8/R3K3 w - - 0 1", "a1a4"), "Moving where a pawn takes loses the rook");
+        Assertions.assertEquals(800, exchange("8/4P3/8/8/8/8/k7/4K3 w - - 0 1", "e7e8q"), "A safe promotion gains a queen for a pawn");
+        Assertions.assertEquals(500 + 800 - 900, exchange("3rk3/4P3/8/8/8/8/8/4K3 w - - 0 1", "e7d8q"),
+                "Taking the rook and promoting, then losing the new queen to the king");
+    }
+
+    @Test
+    @DisplayName("En Passant")
+    public void enPassant()
+    {
+        Assertions.assertEquals(100, exchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+        Assertions.assertEquals(0, exchange("4k3/2p5/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+    }
+}
@@ -0,0 +1,104 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Standard Positions Round Trip")
+    public void roundTrip()
+    {
+        for (Perft.Position position : Perft.Position.values())
+            Assertions.assertEquals(position.getFen(), ChessGame.fromFen(position.getFen()).toFen(), position.name());
+        String enPassant = "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        Assertions.assertEquals(enPassant, ChessGame.fromFen(enPassant).toFen());
+        Assertions.assertEquals(43, ChessGame.fromFen(enPassant).getBoard().getEnPassantSquare());
+
+        //a square with no pawn behind it to take is dropped
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1",
+                ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq e3 0 1").toFen());
+    }
+
+    @Test
+    @DisplayName("Start Position")
+    public void start()
+    {
+        ChessBoard loaded = ChessGame.fromFen(Fen.START).getBoard();
+        ChessBoard reset = new ChessBoard();
+        reset.resetBoard();
+        Assertions.assertEquals(reset, loaded);
+        Assertions.assertEquals(reset.zobristKey(), loaded.zobristKey());
+        Assertions.assertEquals(loaded.computeZobristKey(), loaded.zobristKey());
+        Assertions.assertEquals(Fen.START, new ChessGame().toFen());
+    }
+
+    @Test
+    @DisplayName("Fields Read Into The Game")
+    public void fields()
+    {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b Kq - 12 40");
+        ChessBoard board = game.getBoard();
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, board.getCastlingRights());
+        Assertions.assertEquals(-1, board.getEnPassantSquare());
+        Assertions.assertEquals(12, board.getHalfmoveClock());
+        Assertions.assertEquals(40, board.getFullmoveNumber());
+
+        //the move counters can be left off
+        Assertions.assertEquals("8/8/8/8/8/8/8/K6k w - - 0 1", ChessGame.fromFen("  8/8/8/8/8/8/8/K6k w - -  ").toFen());
+    }
+
+    @Test
+    @DisplayName("Follows Moves Played")
+    public void afterMoves() throws InvalidMoveException
+    {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 1 2", game.toFen());
+
+        //loading over a game in progress forgets how it got there
+        game.loadFen(Perft.Position.KIWIPETE.getFen());
+        Assertions.assertEquals(0, game.getBoard().undoDepth());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(48, game.perft(1));
+    }
+
+    @Test
+    @DisplayName("Reads ASCII Bytes")
+    public void bytes()
+    {
+        String fen = Perft.Position.TALKCHESS.getFen();
+        byte[] line = ("xx" + fen + "\n").getBytes(StandardCharsets.US_ASCII);
+        ChessGame game = new ChessGame();
+        game.loadFen(line, 2, fen.length());
+        Assertions.assertEquals(ChessGame.fromFen(fen).getBoard(), game.getBoard());
+        Assertions.assertEquals(fen, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Positions")
+    public void malformed()
+    {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1", //seven rows
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e3 0 1", //black's en passant square
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+        };
+        for (String fen : bad)
+            Assertions.assertThrows(RuntimeException.class, () -> ChessGame.fromFen(fen), fen);
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Pieces Are Shared")
+    public void sharedPieces()
+    {
+        ChessPiece queen = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(queen, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN), queen);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN).hashCode(), queen.hashCode());
+
+        //the board hands out the shared pieces too
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertSame(queen, board.getPiece(ChessPosition.of(8, 4)));
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.NOTHING, ChessPiece.PieceType.NOTHING),
+                board.getPiece(ChessPosition.of(4, 4)));
+    }
+
+    @Test
+    @DisplayName("Positions Are Shared")
+    public void sharedPositions()
+    {
+        ChessPosition e4 = ChessPosition.of(4, 5);
+        Assertions.assertSame(e4, ChessPosition.of(4, 5));
+        Assertions.assertEquals(new ChessPosition(4, 5), e4);
+        Assertions.assertEquals(new ChessPosition(4, 5).hashCode(), e4.hashCode());
+        Assertions.assertNotEquals(ChessPosition.of(5, 4), e4);
+        Assertions.assertThrows(RuntimeException.class, () -> ChessPosition.of(9, 1));
+
+        //generated moves use the shared positions
+        ChessMove move = PackedMove.toChessMove(PackedMove.encode(12, 28, 0, PackedMove.DOUBLE_PUSH, 5, ChessBoard.EMPTY));
+        Assertions.assertSame(ChessPosition.of(2, 5), move.getStartPosition());
+        Assertions.assertSame(e4, move.getEndPosition());
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MakeUnmakeTests {
+
+    //plays every move to the given depth and checks each one is taken back exactly
+    private void assertRoundTrip(ChessBoard board, int depth)
+    {
+        if (depth == 0)
+            return;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            ChessBoard before = new ChessBoard(board);
+            long key = board.zobristKey();
+
+            board.makeMove(moves.get(i));
+            Assertions.assertEquals(board.computeZobristKey(), board.zobristKey(), "Incremental key doesn't match a full rehash");
+            assertRoundTrip(board, depth - 1);
+            board.unmakeMove();
+
+            Assertions.assertEquals(before, board, "Unmaking a move should restore the board");
+            Assertions.assertEquals(key, board.zobristKey(), "Unmaking a move should restore the key");
+            Assertions.assertEquals(before.getCastlingRights(), board.getCastlingRights());
+            Assertions.assertEquals(before.getEnPassantSquare(), board.getEnPassantSquare());
+            Assertions.assertEquals(before.getHalfmoveClock(), board.getHalfmoveClock());
+            Assertions.assertEquals(before.getFullmoveNumber(), board.getFullmoveNumber());
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Every Position")
+    public void roundTrip()
+    {
+        for (Perft.Position position : Perft.Position.values())
+            assertRoundTrip(position.toGame().getBoard(), 2);
+    }
+
+    @Test
+    @DisplayName("Move State Is Updated")
+    public void moveState()
+    {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        //e2e4 sets the en passant square behind the pawn and passes the turn
+        int e2 = ChessBoard.square(2, 5);
+        int e4 = ChessBoard.square(4, 5);
+        int move = PackedMove.encode(e2, e4, 0, PackedMove.DOUBLE_PUSH,
+                ChessBoard.pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), ChessBoard.EMPTY);
+        board.makeMove(move);
+        Assertions.assertEquals(ChessBoard.square(3, 5), board.getEnPassantSquare());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, board.getSideToMove());
+        Assertions.assertEquals(0, board.getHalfmoveClock());
+        Assertions.assertEquals(1, board.undoDepth());
+
+        //a quiet knight move starts the fifty move count
+        board.makeMove(PackedMove.encode(ChessBoard.square(8, 7), ChessBoard.square(6, 6), 0, 0,
+                ChessBoard.pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT), ChessBoard.EMPTY));
+        Assertions.assertEquals(-1, board.getEnPassantSquare());
+        Assertions.assertEquals(1, board.getHalfmoveClock());
+        Assertions.assertEquals(2, board.getFullmoveNumber());
+
+        //moving the king loses both castling rights for that team
+        board.makeMove(PackedMove.encode(ChessBoard.square(1, 5), ChessBoard.square(2, 5), 0, 0,
+                ChessBoard.pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING), ChessBoard.EMPTY));
+        Assertions.assertEquals(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE, board.getCastlingRights());
+        Assertions.assertEquals(2, board.getHalfmoveClock());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING, board.getCastlingRights());
+        Assertions.assertEquals(0, board.undoDepth());
+    }
+}
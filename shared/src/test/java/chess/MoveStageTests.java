@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class MoveStageTests {
+
+    private Set<Integer> generate(ChessBoard board, int kinds)
+    {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), kinds, moves);
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++)
+            set.add(moves.get(i));
+        Assertions.assertEquals(moves.size(), set.size(), "A move was generated twice");
+        return set;
+    }
+
+    //the tactical and quiet moves should split the legal moves between them, with nothing left over or in both
+    private void walk(ChessBoard board, int depth)
+    {
+        Set<Integer> all = generate(board, MoveGenerator.ALL);
+        Set<Integer> tactical = generate(board, MoveGenerator.TACTICAL);
+        Set<Integer> quiet = generate(board, MoveGenerator.QUIET);
+        for (int move : tactical)
+            Assertions.assertTrue(PackedMove.isCapture(move) || PackedMove.promotion(move) != 0, "Quiet move in the tactical stage");
+        for (int move : quiet)
+            Assertions.assertFalse(PackedMove.isCapture(move) || PackedMove.promotion(move) != 0, "Tactical move in the quiet stage");
+        Assertions.assertEquals(all.size(), tactical.size() + quiet.size());
+        tactical.addAll(quiet);
+        Assertions.assertEquals(all, tactical);
+
+        MoveList scratch = new MoveList();
+        for (int move : all)
+            Assertions.assertTrue(MoveGenerator.isLegal(board, move, scratch), "Generated move isn't legal");
+        if (depth == 0)
+            return;
+
+        for (int move : all)
+        {
+            board.makeMove(move);
+            walk(board, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Tactical And Quiet Moves Make Up All Moves")
+    public void stagesSplitMoves()
+    {
+        for (Perft.Position position : Perft.Position.values())
+            walk(position.toGame().getBoard(), 1);
+    }
+
+    @Test
+    @DisplayName("Moves From Elsewhere Are Checked")
+    public void isLegal()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        MoveList scratch = new MoveList();
+        int white = ChessBoard.pieceCode(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+        int black = ChessBoard.pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+
+        //the knight on e5 can take on f7 but not jump to e6
+        Assertions.assertTrue(MoveGenerator.isLegal(board, PackedMove.encode(36, 53, 0, PackedMove.CAPTURE, white,
+                ChessBoard.pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN)), scratch));
+        Assertions.assertFalse(MoveGenerator.isLegal(board, PackedMove.encode(36, 44, 0, 0, white, ChessBoard.EMPTY), scratch));
+        //the right move but the wrong piece, or the wrong side to move
+        Assertions.assertFalse(MoveGenerator.isLegal(board, PackedMove.encode(36, 53, 0, PackedMove.CAPTURE, black,
+                ChessBoard.pieceCode(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN)), scratch));
+        Assertions.assertFalse(MoveGenerator.isLegal(board, PackedMove.encode(36, 51, 0, 0, white, ChessBoard.EMPTY), scratch),
+                "d7 is black's pawn, so that's a capture");
+        Assertions.assertFalse(MoveGenerator.isLegal(board, PackedMove.NONE, scratch));
+    }
+}
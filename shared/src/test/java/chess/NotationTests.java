@@ -0,0 +1,181 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class NotationTests {
+
+    private static String san(String fen, String uci)
+    {
+        ChessBoard board = ChessGame.fromFen(fen).getBoard();
+        return Notation.toSan(board, Notation.fromUci(board, uci));
+    }
+
+    @Test
+    @DisplayName("Writing SAN")
+    public void writeSan()
+    {
+        String start = Perft.Position.START.getFen();
+        Assertions.assertEquals("e4", san(start, "e2e4"));
+        Assertions.assertEquals("Nf3", san(start, "g1f3"));
+        Assertions.assertEquals("O-O", san(Perft.Position.KIWIPETE.getFen(), "e1g1"));
+        Assertions.assertEquals("O-O-O", san(Perft.Position.KIWIPETE.getFen(), "e1c1"));
+        Assertions.assertEquals("dxe6", san(Perft.Position.KIWIPETE.getFen(), "d5e6"));
+        Assertions.assertEquals("Bxa6", san(Perft.Position.KIWIPETE.getFen(), "e2a6"));
+        Assertions.assertEquals("exf6", san("rnbqkbnr/ppppp1pp/8/4Pp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", "e5f6"));
+        Assertions.assertEquals("bxa8=Q+", san("r3k3/1P6/8/8/8/8/8/7K w - - 0 1", "b7a8q"));
+        Assertions.assertEquals("d8=N+", san("8/1k1P4/8/8/8/8/8/K7 w - - 0 1", "d7d8n"));
+        Assertions.assertEquals("Qh4#", san("rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq - 0 2", "d8h4"));
+        Assertions.assertEquals("Bb5+", san("rnbqkbnr/ppp1pppp/3p4/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2", "f1b5"));
+    }
+
+    @Test
+    @DisplayName("Disambiguation")
+    public void disambiguation()
+    {
+        //knights on b1 and f3 can both reach d2, rooks on a1 and a5 can both reach a3
+        String fen = "4k3/8/8/R7/8/8/8/RN2K3 w - - 0 1";
+        Assertions.assertEquals("R5a3", san(fen, "a5a3"));
+        Assertions.assertEquals("R1a3", san(fen, "a1a3"));
+        Assertions.assertEquals("Nd2", san(fen, "b1d2"));
+        Assertions.assertEquals("Nbd2", san("4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1", "b1d2"));
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseSan(ChessGame.fromFen("4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1").getBoard(), "Nd2"),
+                "Either knight could go there");
+
+        //three queens that can all reach d4, where the one on a1 has to give its whole square
+        String queens = "6k1/8/8/8/Q7/8/7K/Q2Q4 w - - 0 1";
+        Assertions.assertEquals("Qa1d4", san(queens, "a1d4"));
+        Assertions.assertEquals("Q4d4", san(queens, "a4d4"));
+        Assertions.assertEquals("Qdd4", san(queens, "d1d4"));
+
+        //the knight on e2 is pinned, so the one on b1 doesn't need to say where it's from
+        String pinned = "4k3/4r3/8/8/8/8/4N3/1N2K3 w - - 0 1";
+        Assertions.assertEquals("Nc3", san(pinned, "b1c3"));
+        Assertions.assertEquals("b1c3", Notation.toUci(Notation.fromSan(ChessGame.fromFen(pinned).getBoard(), "Nc3")));
+    }
+
+    @Test
+    @DisplayName("Reading SAN")
+    public void readSan()
+    {
+        ChessBoard board = ChessGame.fromFen(Perft.Position.KIWIPETE.getFen()).getBoard();
+        Assertions.assertEquals("e1c1", Notation.toUci(Notation.fromSan(board, "O-O-O")));
+        Assertions.assertEquals("e1g1", Notation.toUci(Notation.fromSan(board, "0-0")));
+        Assertions.assertEquals("e5f7", Notation.toUci(Notation.fromSan(board, "Nxf7!?")));
+        Assertions.assertEquals("d5d6", Notation.toUci(Notation.fromSan(board, "d6")));
+        Assertions.assertEquals("c3b5", Notation.toUci(Notation.fromSan(board, "Ncb5")));
+        Assertions.assertEquals("c3b5", Notation.toUci(Notation.fromSan(board, "Nb5")));
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseSan(board, "e6"), "Not a capture");
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseSan(board, "Ke3"));
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseSan(board, "Zz9"));
+        Assertions.assertThrows(RuntimeException.class, () -> Notation.fromSan(board, "Qh8"));
+
+        ChessBoard promotions = ChessGame.fromFen("3k4/1P6/8/8/8/8/8/K7 w - - 0 1").getBoard();
+        Assertions.assertEquals("b7b8q", Notation.toUci(Notation.fromSan(promotions, "b8=Q+")));
+        Assertions.assertEquals("b7b8n", Notation.toUci(Notation.fromSan(promotions, "b8N")));
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseSan(promotions, "b8"), "A promotion has to say what to");
+    }
+
+    @Test
+    @DisplayName("UCI")
+    public void uci()
+    {
+        ChessBoard board = ChessGame.fromFen("r3k3/1P6/8/8/8/8/8/7K w - - 0 1").getBoard();
+        int move = Notation.parseUci(board, "b7a8q");
+        Assertions.assertTrue(PackedMove.isCapture(move));
+        Assertions.assertEquals(ChessPiece.PieceType.QUEEN, PackedMove.promotionType(move));
+        StringBuilder out = new StringBuilder();
+        Notation.writeUci(move, out);
+        Assertions.assertEquals("b7a8q", out.toString());
+        Assertions.assertEquals("h1g1", Notation.toUci(Notation.fromUci(board, "h1g1")));
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseUci(board, "b7a8"), "A promotion has to say what to");
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseUci(board, "a7a6"), "Nothing there");
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseUci(board, "a8a1"), "Black's rook");
+        Assertions.assertEquals(PackedMove.NONE, Notation.parseUci(board, "e2"));
+        Assertions.assertThrows(RuntimeException.class, () -> Notation.fromUci(board, "i1i2"));
+    }
+
+    @Test
+    @DisplayName("Agrees With The Move Generator")
+    public void randomGames()
+    {
+        //every legal move in positions along random games has to be written as the shortest
+        //unambiguous SAN a full move list would give, and read back as the same move
+        Random random = new Random(23);
+        MoveList moves = new MoveList();
+        int checked = 0;
+        for (Perft.Position position : Perft.Position.values())
+        {
+            for (int game = 0; game < 20; game++)
+            {
+                ChessBoard board = position.toGame().getBoard();
+                for (int ply = 0; ply < 80; ply++)
+                {
+                    moves.clear();
+                    int count = MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+                    if (count == 0)
+                        break;
+                    for (int i = 0; i < count; i++)
+                    {
+                        int move = moves.get(i);
+                        StringBuilder san = new StringBuilder();
+                        Notation.writeSan(board, move, san);
+                        Assertions.assertEquals(expectedSan(board, move, moves), san.toString());
+                        Assertions.assertEquals(move, Notation.parseSan(board, san));
+                        Assertions.assertEquals(move, Notation.parseUci(board, Notation.toUci(PackedMove.toChessMove(move))));
+                        checked++;
+                    }
+                    board.makeMove(moves.get(random.nextInt(count)));
+                }
+            }
+        }
+        Assertions.assertTrue(checked > 100_000, checked + " moves checked");
+    }
+
+    //SAN worked out the slow way, from the whole list of legal moves
+    private static String expectedSan(ChessBoard board, int move, MoveList moves)
+    {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int type = PackedMove.movedPiece(move) % 6;
+        String square = "" + (char) ('a' + to % 8) + (char) ('1' + to / 8);
+        String san;
+        if ((move & PackedMove.CASTLE) != 0)
+            san = to > from ? "O-O" : "O-O-O";
+        else if (type == 5)
+        {
+            san = (PackedMove.isCapture(move) ? (char) ('a' + from % 8) + "x" : "") + square;
+            if (PackedMove.promotion(move) != 0)
+                san += "=" + "KQBNR".charAt(PackedMove.promotion(move));
+        }
+        else
+        {
+            boolean ambiguous = false;
+            boolean fileShared = false;
+            boolean rankShared = false;
+            for (int i = 0; i < moves.size(); i++)
+            {
+                int other = moves.get(i);
+                int otherFrom = PackedMove.from(other);
+                if (otherFrom == from || PackedMove.to(other) != to || PackedMove.movedPiece(other) != PackedMove.movedPiece(move))
+                    continue;
+                ambiguous = true;
+                fileShared |= otherFrom % 8 == from % 8;
+                rankShared |= otherFrom / 8 == from / 8;
+            }
+            String file = "" + (char) ('a' + from % 8);
+            String rank = "" + (char) ('1' + from / 8);
+            String disambiguation = !ambiguous ? "" : !fileShared ? file : !rankShared ? rank : file + rank;
+            san = "KQBNR".charAt(type) + disambiguation + (PackedMove.isCapture(move) ? "x" : "") + square;
+        }
+
+        board.makeMove(move);
+        if (MoveGenerator.inCheck(board, board.getSideToMove()))
+            san += MoveGenerator.generateLegalMoves(board, board.getSideToMove(), new MoveList()) == 0 ? "#" : "+";
+        board.unmakeMove();
+        return san;
+    }
+}
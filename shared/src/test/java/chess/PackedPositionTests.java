@@ -0,0 +1,96 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class PackedPositionTests {
+
+    private static String roundTrip(String fen)
+    {
+        return PackedPosition.toGame(PackedPosition.toBytes(ChessGame.fromFen(fen).getBoard())).toFen();
+    }
+
+    @Test
+    @DisplayName("Standard Positions Round Trip")
+    public void standardPositions()
+    {
+        for (Perft.Position position : Perft.Position.values())
+            Assertions.assertEquals(position.getFen(), roundTrip(position.getFen()), position.name());
+        String enPassant = "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        Assertions.assertEquals(enPassant, roundTrip(enPassant));
+        String blackEnPassant = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        Assertions.assertEquals(blackEnPassant, roundTrip(blackEnPassant));
+        Assertions.assertEquals("8/8/8/8/8/8/8/K6k b - - 99 300", roundTrip("8/8/8/8/8/8/8/K6k b - - 99 300"));
+    }
+
+    @Test
+    @DisplayName("Size")
+    public void size()
+    {
+        ChessBoard start = ChessGame.fromFen(Fen.START).getBoard();
+        Assertions.assertEquals(PackedPosition.MAX_BYTES, PackedPosition.toBytes(start).length);
+        Assertions.assertEquals(28, PackedPosition.MAX_BYTES);
+        ChessBoard kings = ChessGame.fromFen("8/8/8/8/8/8/8/K6k w - - 0 1").getBoard();
+        Assertions.assertEquals(13, PackedPosition.size(kings));
+        Assertions.assertEquals(13, PackedPosition.toBytes(kings).length);
+
+        //more than an order of magnitude smaller than the board as reflective JSON
+        Assertions.assertTrue(new Gson().toJson(start).length() > 10 * PackedPosition.MAX_BYTES);
+    }
+
+    @Test
+    @DisplayName("Positions Along Random Games")
+    public void randomGames()
+    {
+        //positions written one after another into one buffer have to come back out the same, hash and all
+        Random random = new Random(24);
+        ByteBuffer buffer = ByteBuffer.allocate(200 * PackedPosition.MAX_BYTES);
+        ChessBoard decoded = new ChessBoard();
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 50; game++)
+        {
+            ChessBoard board = ChessGame.fromFen(Fen.START).getBoard();
+            buffer.clear();
+            String[] fens = new String[200];
+            int count = 0;
+            for (; count < fens.length; count++)
+            {
+                fens[count] = Fen.toString(board);
+                Assertions.assertEquals(PackedPosition.size(board), PackedPosition.encode(board, buffer));
+                moves.clear();
+                if (MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves) == 0)
+                {
+                    count++;
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+
+            buffer.flip();
+            for (int i = 0; i < count; i++)
+            {
+                PackedPosition.decode(buffer, decoded);
+                Assertions.assertEquals(fens[i], Fen.toString(decoded));
+                Assertions.assertEquals(decoded.computeZobristKey(), decoded.zobristKey());
+                Assertions.assertEquals(ChessGame.fromFen(fens[i]).getBoard().zobristKey(), decoded.zobristKey());
+            }
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    @DisplayName("Bad Bytes")
+    public void badBytes()
+    {
+        byte[] bytes = PackedPosition.toBytes(ChessGame.fromFen(Fen.START).getBoard());
+        Assertions.assertThrows(BufferUnderflowException.class, () -> PackedPosition.decode(ByteBuffer.wrap(bytes, 0, 20), new ChessBoard()));
+        bytes[8] = (byte) 0xFF;
+        Assertions.assertThrows(RuntimeException.class, () -> PackedPosition.toGame(bytes));
+    }
+}
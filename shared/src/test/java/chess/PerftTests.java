@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class PerftTests {
+
+    private void assertPerft(Perft.Position position, int maxDepth)
+    {
+        ChessGame game = position.toGame();
+        for (int depth = 1; depth <= maxDepth; depth++)
+        {
+            Assertions.assertEquals(position.expectedNodes(depth), game.perft(depth),
+                    "Wrong perft count for " + position + " at depth " + depth);
+        }
+    }
+
+    @Test
+    @DisplayName("Starting Position")
+    public void startPosition()
+    {
+        assertPerft(Perft.Position.START, 4);
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete()
+    {
+        assertPerft(Perft.Position.KIWIPETE, 3);
+    }
+
+    @Test
+    @DisplayName("Rook and Pawn Endgame")
+    public void endgame()
+    {
+        assertPerft(Perft.Position.ENDGAME, 4);
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    public void promotions()
+    {
+        assertPerft(Perft.Position.PROMOTIONS, 3);
+    }
+
+    @Test
+    @DisplayName("Talkchess")
+    public void talkchess()
+    {
+        assertPerft(Perft.Position.TALKCHESS, 3);
+    }
+
+    @Test
+    @DisplayName("Middlegame")
+    public void middlegame()
+    {
+        assertPerft(Perft.Position.MIDDLEGAME, 3);
+    }
+
+    @Test
+    @DisplayName("Divide Adds Up")
+    public void divide()
+    {
+        ChessGame game = Perft.Position.START.toGame();
+        Map<ChessMove, Long> counts = game.divide(3);
+
+        Assertions.assertEquals(20, counts.size(), "Divide should have one entry per legal first move");
+        Assertions.assertEquals(Perft.Position.START.expectedNodes(3),
+                counts.values().stream().mapToLong(Long::longValue).sum(), "Divide counts don't add up to perft");
+    }
+}
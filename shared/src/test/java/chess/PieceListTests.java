@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PieceListTests {
+
+    //every piece list should hold exactly the squares on that piece's bitboard
+    private void assertListsMatch(ChessBoard board)
+    {
+        for (int code = 0; code < 12; code++)
+        {
+            long squares = 0L;
+            for (int i = 0; i < board.pieceCount(code); i++)
+                squares |= 1L << board.pieceSquare(code, i);
+            Assertions.assertEquals(Long.bitCount(board.pieceBoards[code]), board.pieceCount(code), "Wrong piece count");
+            Assertions.assertEquals(board.pieceBoards[code], squares, "Piece list doesn't match the bitboard");
+        }
+    }
+
+    private void walk(ChessBoard board, int depth)
+    {
+        assertListsMatch(board);
+        if (depth == 0)
+            return;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            board.makeMove(moves.get(i));
+            walk(board, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Piece Lists Follow Moves")
+    public void listsFollowMoves()
+    {
+        walk(Perft.Position.KIWIPETE.toGame().getBoard(), 2);
+        walk(Perft.Position.PROMOTIONS.toGame().getBoard(), 2);
+    }
+
+    @Test
+    @DisplayName("King Square Is Tracked")
+    public void kingSquare()
+    {
+        ChessBoard board = new ChessBoard();
+        Assertions.assertEquals(-1, board.kingSquare(ChessGame.TeamColor.WHITE), "Empty board shouldn't have a king");
+
+        board.resetBoard();
+        Assertions.assertEquals(ChessBoard.square(1, 5), board.kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessBoard.square(8, 5), board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        ChessPosition from = new ChessPosition(8, 5);
+        ChessPiece king = board.getPiece(from);
+        board.removePiece(from);
+        Assertions.assertEquals(-1, board.kingSquare(ChessGame.TeamColor.BLACK), "Removed king is still tracked");
+        board.addPiece(new ChessPosition(5, 4), king);
+        Assertions.assertEquals(ChessBoard.square(5, 4), board.kingSquare(ChessGame.TeamColor.BLACK));
+
+        //a piece added on top of the king replaces it
+        board.addPiece(new ChessPosition(5, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(-1, board.kingSquare(ChessGame.TeamColor.BLACK));
+        assertListsMatch(board);
+    }
+}
@@ -0,0 +1,98 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PieceSquareTests {
+
+    //the running totals should always match adding up every piece from scratch
+    private void assertScoreMatches(ChessBoard board)
+    {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int code = 0; code < 12; code++)
+        {
+            for (int i = 0; i < board.pieceCount(code); i++)
+            {
+                int square = board.pieceSquare(code, i);
+                middlegame += PieceSquareTables.MIDDLEGAME[code][square];
+                endgame += PieceSquareTables.ENDGAME[code][square];
+                phase += PieceSquareTables.PHASE[code];
+            }
+        }
+        Assertions.assertEquals(middlegame, board.middlegameScore, "Middlegame score drifted");
+        Assertions.assertEquals(endgame, board.endgameScore, "Endgame score drifted");
+        Assertions.assertEquals(phase, board.phase, "Game phase drifted");
+    }
+
+    private void walk(ChessBoard board, int depth)
+    {
+        assertScoreMatches(board);
+        if (depth == 0)
+            return;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            board.makeMove(moves.get(i));
+            walk(board, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Score Follows Moves")
+    public void scoreFollowsMoves()
+    {
+        walk(Perft.Position.KIWIPETE.toGame().getBoard(), 2);
+        walk(Perft.Position.PROMOTIONS.toGame().getBoard(), 2);
+        walk(Perft.Position.ENDGAME.toGame().getBoard(), 3);
+    }
+
+    @Test
+    @DisplayName("Starting Position Is Even")
+    public void startIsEven()
+    {
+        ChessBoard board = new ChessBoard();
+        Assertions.assertEquals(0, board.pieceSquareScore(), "Empty board should score 0");
+        board.resetBoard();
+        Assertions.assertEquals(0, board.pieceSquareScore(), "Both sides start the same");
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.phase, "Starting position should be a full middlegame");
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores Opposite")
+    public void mirrored()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        ChessBoard mirror = new ChessBoard();
+        for (int row = 1; row <= 8; row++)
+        {
+            for (int col = 1; col <= 8; col++)
+            {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece.getPieceType() == ChessPiece.PieceType.NOTHING)
+                    continue;
+                ChessGame.TeamColor other = piece.getTeamColor() == ChessGame.TeamColor.WHITE
+                        ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+                mirror.addPiece(new ChessPosition(9 - row, col), new ChessPiece(other, piece.getPieceType()));
+            }
+        }
+        Assertions.assertNotEquals(0, board.pieceSquareScore());
+        Assertions.assertEquals(-board.pieceSquareScore(), mirror.pieceSquareScore(), "Swapping the sides should flip the score");
+    }
+
+    @Test
+    @DisplayName("Material Counts")
+    public void material()
+    {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        board.removePiece(new ChessPosition(8, 4)); //black's queen
+        Assertions.assertTrue(board.pieceSquareScore() > 800, "Being a queen up should be worth a lot");
+        assertScoreMatches(board);
+    }
+}
@@ -0,0 +1,145 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TablebaseTests {
+
+    @TempDir
+    static Path directory;
+    static Tablebase tablebase;
+
+    @BeforeAll
+    public static void generate() throws IOException
+    {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        for (String material : new String[]{"KQK", "KRK", "KPK"})
+            generator.write(material, directory);
+        tablebase = Tablebase.open(directory);
+    }
+
+    private int probe(String fen)
+    {
+        return tablebase.probe(ChessGame.fromFen(fen).getBoard());
+    }
+
+    @Test
+    @DisplayName("Longest Mates")
+    public void longestMates()
+    {
+        //the published longest wins: mate in 10 with a queen and mate in 16 with a rook
+        TablebaseGenerator generator = new TablebaseGenerator();
+        Assertions.assertEquals(19, longest(generator.generate("KQK")));
+        Assertions.assertEquals(31, longest(generator.generate("KRK")));
+    }
+
+    private static int longest(byte[] values)
+    {
+        int longest = 0;
+        for (byte value : values)
+            longest = Math.max(longest, value);
+        return longest;
+    }
+
+    @Test
+    @DisplayName("Known Positions")
+    public void knownPositions()
+    {
+        Assertions.assertEquals(Tablebase.MATE - 1, probe("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1"));
+        Assertions.assertEquals(-Tablebase.MATE, probe("Q6k/8/6K1/8/8/8/8/8 b - - 0 1"), "Checkmated");
+        //black's king takes the queen
+        Assertions.assertEquals(0, probe("8/8/8/8/8/8/6kQ/K7 b - - 0 1"));
+        //a rook pawn can't get the king out of the corner, but the king on h8 can't catch this one
+        Assertions.assertEquals(0, probe("k7/8/8/8/8/8/P7/K7 w - - 0 1"));
+        Assertions.assertTrue(probe("7k/8/8/8/8/8/P7/K7 w - - 0 1") > 0);
+        //a lone minor piece is a draw without needing a table
+        Assertions.assertEquals(0, probe("7k/8/8/8/8/8/8/KN6 w - - 0 1"));
+        Assertions.assertEquals(Tablebase.UNKNOWN, probe("7k/8/8/8/8/8/8/KNB5 w - - 0 1"));
+        Assertions.assertEquals(Tablebase.UNKNOWN, probe("7k/7p/8/8/8/8/8/KQ6 w - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Either Side Can Have The Pieces")
+    public void colorsFlipped()
+    {
+        Assertions.assertEquals(Tablebase.MATE - 1, probe("1q6/8/8/8/8/6k1/8/7K b - - 0 1"));
+        Assertions.assertEquals(probe("7k/8/8/8/8/8/P7/K7 w - - 0 1"), probe("k7/p7/8/8/8/8/8/7K b - - 0 1"));
+    }
+
+    @Test
+    @DisplayName("Agrees With Its Own Moves")
+    public void consistentWithMoves()
+    {
+        //every position's value has to be the best of its moves' values one ply on, as a search would work it out
+        Random random = new Random(20);
+        ChessPiece.PieceType[] types = {ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.PAWN};
+        int checked = 0;
+        while (checked < 3000)
+        {
+            ChessBoard board = randomPosition(random, types[checked % types.length]);
+            if (board == null)
+                continue;
+            checked++;
+
+            int expected = MoveGenerator.inCheck(board, board.getSideToMove()) ? -Tablebase.MATE : 0;
+            MoveList moves = new MoveList();
+            int count = MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+            int best = Integer.MIN_VALUE;
+            for (int i = 0; i < count; i++)
+            {
+                board.makeMove(moves.get(i));
+                int child = tablebase.probe(board);
+                board.unmakeMove();
+                Assertions.assertNotEquals(Tablebase.UNKNOWN, child);
+                best = Math.max(best, child > 0 ? -child + 1 : child < 0 ? -child - 1 : 0);
+            }
+            Assertions.assertEquals(count == 0 ? expected : best, tablebase.probe(board));
+        }
+    }
+
+    //a legal position with a king and one piece against a king, either side having the piece, or null if the squares picked don't work
+    private static ChessBoard randomPosition(Random random, ChessPiece.PieceType type)
+    {
+        ChessGame.TeamColor strong = random.nextBoolean() ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessGame.TeamColor bare = strong == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        int strongKing = random.nextInt(64);
+        int bareKing = random.nextInt(64);
+        int piece = type == ChessPiece.PieceType.PAWN ? 8 + random.nextInt(48) : random.nextInt(64);
+        if (strongKing == bareKing || piece == strongKing || piece == bareKing)
+            return null;
+
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(strongKing / 8 + 1, strongKing % 8 + 1), ChessPiece.of(strong, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(bareKing / 8 + 1, bareKing % 8 + 1), ChessPiece.of(bare, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(piece / 8 + 1, piece % 8 + 1), ChessPiece.of(strong, type));
+        board.setCastlingRights(0);
+        board.setSideToMove(random.nextBoolean() ? strong : bare);
+        ChessGame.TeamColor waiting = board.getSideToMove() == strong ? bare : strong;
+        return MoveGenerator.inCheck(board, waiting) ? null : board;
+    }
+
+    @Test
+    @DisplayName("Game Adjudication")
+    public void adjudication()
+    {
+        ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/P7/K7 b - - 0 1");
+        Assertions.assertEquals(ChessGame.GameResult.ONGOING, game.adjudicate(), "Nothing to go on without a tablebase");
+        game.setTablebase(tablebase);
+        Assertions.assertEquals(ChessGame.GameResult.WHITE_WINS, game.adjudicate());
+
+        game = ChessGame.fromFen("k7/8/8/8/8/8/P7/K7 w - - 0 1");
+        game.setTablebase(tablebase);
+        Assertions.assertEquals(ChessGame.GameResult.DRAW, game.adjudicate());
+
+        Assertions.assertEquals(ChessGame.GameResult.BLACK_WINS, ChessGame.fromFen("8/8/8/8/8/5k2/8/5K1q w - - 0 1").adjudicate());
+        Assertions.assertEquals(ChessGame.GameResult.DRAW, ChessGame.fromFen("7k/8/8/8/8/8/8/KB6 w - - 0 1").adjudicate());
+        Assertions.assertEquals(ChessGame.GameResult.ONGOING, Perft.Position.START.toGame().adjudicate());
+    }
+}
@@ -0,0 +1,97 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Same Position Same Key")
+    public void sameKey()
+    {
+        ChessBoard reset = new ChessBoard();
+        reset.resetBoard();
+        ChessBoard loaded = Perft.Position.START.toGame().getBoard();
+
+        Assertions.assertEquals(reset.zobristKey(), loaded.zobristKey(),
+                "Boards set up in a different order should have the same key");
+        Assertions.assertEquals(reset.computeZobristKey(), reset.zobristKey(), "Incremental key doesn't match a full rehash");
+    }
+
+    @Test
+    @DisplayName("Key Follows Changes")
+    public void keyFollowsChanges()
+    {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long start = board.zobristKey();
+
+        //moves a knight out and back
+        ChessPosition from = new ChessPosition(1, 2);
+        ChessPosition to = new ChessPosition(3, 3);
+        ChessPiece knight = board.getPiece(from);
+        board.removePiece(from);
+        board.addPiece(to, knight);
+        Assertions.assertNotEquals(start, board.zobristKey(), "Moving a piece should change the key");
+        Assertions.assertEquals(board.computeZobristKey(), board.zobristKey(), "Incremental key doesn't match a full rehash");
+
+        board.removePiece(to);
+        board.addPiece(from, knight);
+        Assertions.assertEquals(start, board.zobristKey(), "Moving a piece back should restore the key");
+
+        //side to move, castling rights and en passant all count
+        board.setSideToMove(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(start, board.zobristKey());
+        board.setCastlingRights(ChessBoard.BLACK_KINGSIDE);
+        board.setEnPassantSquare(ChessBoard.square(3, 5));
+        Assertions.assertEquals(board.computeZobristKey(), board.zobristKey(), "Incremental key doesn't match a full rehash");
+
+        board.setSideToMove(ChessGame.TeamColor.WHITE);
+        board.setCastlingRights(ChessBoard.ALL_CASTLING);
+        board.setEnPassantSquare(-1);
+        Assertions.assertEquals(start, board.zobristKey(), "Restoring the state should restore the key");
+    }
+
+    @Test
+    @DisplayName("Copies Keep The Key")
+    public void copyKeepsKey()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        Assertions.assertEquals(board.zobristKey(), new ChessBoard(board).zobristKey());
+    }
+
+    private void walkPawnKeys(ChessBoard board, int depth)
+    {
+        Assertions.assertEquals(board.computePawnKey(), board.pawnKey(), "Incremental pawn key doesn't match a full rehash");
+        if (depth == 0)
+            return;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            long before = board.pawnKey();
+            int move = moves.get(i);
+            board.makeMove(move);
+            boolean pawnsChanged = PackedMove.movedPiece(move) % 6 == ChessPiece.PieceType.PAWN.ordinal()
+                    || (PackedMove.isCapture(move) && PackedMove.capturedPiece(move) % 6 == ChessPiece.PieceType.PAWN.ordinal());
+            Assertions.assertEquals(pawnsChanged, board.pawnKey() != before, "Only pawn moves and captures should change the pawn key");
+            walkPawnKeys(board, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Pawn Key Follows Moves")
+    public void pawnKey()
+    {
+        walkPawnKeys(Perft.Position.KIWIPETE.toGame().getBoard(), 2);
+        walkPawnKeys(Perft.Position.PROMOTIONS.toGame().getBoard(), 2);
+
+        ChessBoard board = new ChessBoard();
+        Assertions.assertEquals(0L, board.pawnKey(), "No pawns should give key 0");
+        board.resetBoard();
+        Assertions.assertEquals(Perft.Position.START.toGame().getBoard().pawnKey(), board.pawnKey());
+    }
+}
@@ -0,0 +1,134 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class MovePickerTests {
+
+    private Set<Integer> legalMoves(ChessBoard board)
+    {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++)
+            set.add(moves.get(i));
+        return set;
+    }
+
+    private int encode(ChessBoard board, String from, String to)
+    {
+        for (int move : legalMoves(board))
+        {
+            if (PackedMove.from(move) == square(from) && PackedMove.to(move) == square(to))
+                return move;
+        }
+        throw new RuntimeException("no move " + from + to);
+    }
+
+    private int square(String name)
+    {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    @Test
+    @DisplayName("Every Move Exactly Once")
+    public void everyMoveOnce()
+    {
+        for (Perft.Position position : Perft.Position.values())
+        {
+            ChessBoard board = position.toGame().getBoard();
+            MoveHistory history = new MoveHistory();
+            MovePicker picker = new MovePicker(history);
+            Set<Integer> legal = legalMoves(board);
+            int someQuiet = legal.stream().filter(MovePicker::isQuiet).findFirst().orElse(PackedMove.NONE);
+            history.cutoff(someQuiet, PackedMove.NONE, 0, 4, new int[0], 0);
+
+            picker.start(board, MoveGenerator.inCheck(board, board.getSideToMove()), legal.iterator().next(), 0, PackedMove.NONE);
+            Set<Integer> picked = new HashSet<>();
+            int move;
+            while ((move = picker.next()) != PackedMove.NONE)
+                Assertions.assertTrue(picked.add(move), position + " picked a move twice");
+            Assertions.assertEquals(legal, picked, position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Best Guesses Come First")
+    public void order()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        MoveHistory history = new MoveHistory();
+        int killer = encode(board, "a2", "a3");
+        history.cutoff(killer, PackedMove.NONE, 3, 5, new int[0], 0);
+        int tableMove = encode(board, "e2", "a6"); //takes the bishop
+
+        MovePicker picker = new MovePicker(history);
+        picker.start(board, false, tableMove, 3, PackedMove.NONE);
+        Assertions.assertEquals(tableMove, picker.next(), "The table move should be first");
+        int move;
+        boolean quietSeen = false;
+        while ((move = picker.next()) != PackedMove.NONE)
+        {
+            if (MovePicker.isQuiet(move))
+            {
+                if (!quietSeen)
+                    Assertions.assertEquals(killer, move, "The killer should be the first quiet move");
+                quietSeen = true;
+            }
+            else
+                Assertions.assertTrue(!quietSeen || board.staticExchange(move) < 0, "A capture that doesn't lose came after a quiet move");
+        }
+        Assertions.assertTrue(quietSeen);
+    }
+
+    @Test
+    @DisplayName("Killers From Elsewhere Are Skipped")
+    public void illegalKiller()
+    {
+        //a killer from another position that can't be played here
+        ChessBoard board = Perft.Position.START.toGame().getBoard();
+        MoveHistory history = new MoveHistory();
+        int elsewhere = PackedMove.encode(square("e5"), square("e6"), 0, 0,
+                PackedMove.movedPiece(encode(board, "e2", "e4")), PackedMove.capturedPiece(encode(board, "e2", "e4")));
+        history.cutoff(elsewhere, PackedMove.NONE, 0, 3, new int[0], 0);
+
+        MovePicker picker = new MovePicker(history);
+        picker.start(board, false, PackedMove.NONE, 0, PackedMove.NONE);
+        Set<Integer> picked = new HashSet<>();
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE)
+            picked.add(move);
+        Assertions.assertEquals(legalMoves(board), picked);
+    }
+
+    @Test
+    @DisplayName("Quiescence Only Gets Captures That Don't Lose")
+    public void tacticalOnly()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        int expected = 0;
+        for (int move : legalMoves(board))
+        {
+            if (!MovePicker.isQuiet(move) && board.staticExchange(move) >= 0)
+                expected++;
+        }
+
+        MovePicker picker = new MovePicker(new MoveHistory());
+        picker.startTactical(board, false);
+        int count = 0;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE)
+        {
+            Assertions.assertFalse(MovePicker.isQuiet(move));
+            Assertions.assertTrue(board.staticExchange(move) >= 0, "Losing captures should be skipped");
+            count++;
+        }
+        Assertions.assertTrue(count > 0 && count < 8, "Some of Kiwipete's 8 captures lose material");
+        Assertions.assertEquals(expected, count);
+    }
+}
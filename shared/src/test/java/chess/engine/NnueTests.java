@@ -0,0 +1,122 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class NnueTests {
+
+    //not a multiple of any vector width, so the leftover lanes get tested too
+    private static final Network NETWORK = Network.random(72, 1);
+
+    //an evaluator following the board should always agree with one built fresh for the position
+    private void walk(ChessBoard board, NnueEvaluator following, int depth)
+    {
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(new ChessBoard(board)), following.evaluate(board),
+                "Accumulators drifted from the position");
+        if (depth == 0)
+            return;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            board.makeMove(moves.get(i));
+            walk(board, following, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    @DisplayName("Accumulators Follow Moves")
+    public void accumulatorsFollowMoves()
+    {
+        walk(Perft.Position.KIWIPETE.toGame().getBoard(), new NnueEvaluator(NETWORK), 2);
+        walk(Perft.Position.PROMOTIONS.toGame().getBoard(), new NnueEvaluator(NETWORK), 2);
+    }
+
+    @Test
+    @DisplayName("Accumulators Follow Board Edits")
+    public void accumulatorsFollowEdits()
+    {
+        ChessBoard board = new ChessBoard();
+        NnueEvaluator following = new NnueEvaluator(NETWORK);
+        following.evaluate(board);
+
+        board.resetBoard();
+        board.removePiece(ChessPosition.of(1, 4));
+        board.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(new ChessBoard(board)), following.evaluate(board));
+
+        board.resetBoard();
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(new ChessBoard(board)), following.evaluate(board));
+    }
+
+    @Test
+    @DisplayName("Vector Kernels Match Scalar")
+    public void vectorMatchesScalar()
+    {
+        Assertions.assertInstanceOf(VectorKernels.class, Kernels.best(), "Tests should run with the Vector API");
+        for (Perft.Position position : Perft.Position.values())
+        {
+            ChessBoard board = position.toGame().getBoard();
+            Assertions.assertEquals(new NnueEvaluator(NETWORK, new ScalarKernels()).evaluate(board),
+                    new NnueEvaluator(NETWORK, new VectorKernels()).evaluate(board), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores The Same")
+    public void mirrored()
+    {
+        ChessBoard board = Perft.Position.KIWIPETE.toGame().getBoard();
+        ChessBoard mirror = new ChessBoard();
+        for (int row = 1; row <= 8; row++)
+        {
+            for (int col = 1; col <= 8; col++)
+            {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece.getPieceType() == ChessPiece.PieceType.NOTHING)
+                    continue;
+                ChessGame.TeamColor other = piece.getTeamColor() == ChessGame.TeamColor.WHITE
+                        ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+                mirror.addPiece(ChessPosition.of(9 - row, col), ChessPiece.of(other, piece.getPieceType()));
+            }
+        }
+        mirror.setSideToMove(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(board), new NnueEvaluator(NETWORK).evaluate(mirror),
+                "Both sides should see the same position the same way");
+    }
+
+    @Test
+    @DisplayName("Network Files Load")
+    public void saveAndLoad(@TempDir Path directory) throws IOException
+    {
+        Path file = directory.resolve("test.nnue");
+        NETWORK.save(file);
+        Network loaded = Network.load(file);
+        Assertions.assertEquals(NETWORK.hiddenSize(), loaded.hiddenSize());
+
+        ChessBoard board = Perft.Position.MIDDLEGAME.toGame().getBoard();
+        Assertions.assertEquals(new NnueEvaluator(NETWORK).evaluate(board), new NnueEvaluator(loaded).evaluate(board));
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        Assertions.assertThrows(RuntimeException.class, () -> Network.load(file));
+    }
+
+    @Test
+    @DisplayName("Searches With The Network")
+    public void search()
+    {
+        SearchResult result = new Search(new NnueEvaluator(NETWORK)).search(Perft.Position.KIWIPETE.toGame(), 3, 0, 0);
+        Assertions.assertNotNull(result.getBestMove());
+        Assertions.assertEquals(3, result.getDepth());
+    }
+}
@@ -0,0 +1,49 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Threads Agree On Mate")
+    public void mateInOne()
+    {
+        try (ParallelSearch search = new ParallelSearch(4, 4, MaterialEvaluator::new)) {
+            ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+            SearchResult result = search.search(game, 4, 0, 0);
+            Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.getBestMove());
+            Assertions.assertTrue(Search.isMateScore(result.getScore()));
+        }
+    }
+
+    @Test
+    @DisplayName("Stop Ends Every Thread")
+    public void stop() throws InterruptedException
+    {
+        try (ParallelSearch search = new ParallelSearch(4, 4, MaterialEvaluator::new)) {
+            ChessGame game = Perft.Position.KIWIPETE.toGame();
+            Thread stopper = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ignored) {
+                }
+                search.stop();
+            });
+            stopper.start();
+
+            long start = System.nanoTime();
+            SearchResult result = search.search(game, 0, 0, 0); //no budget, only the stop ends it
+            stopper.join();
+            Assertions.assertTrue(System.nanoTime() - start < 10_000_000_000L, "Search didn't stop");
+            Assertions.assertNotNull(result.getBestMove());
+            Assertions.assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()),
+                    "Best move isn't legal");
+
+            //the same searcher can go again after being stopped
+            Assertions.assertTrue(search.search(game, 3, 0, 0).getDepth() >= 3);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PawnTableTests {
+
+    @Test
+    @DisplayName("Scores Pawn Structure")
+    public void structure()
+    {
+        //doubled and isolated on the a-file, and the front pawn is passed; with only kings left it's all endgame
+        ChessBoard white = ChessGame.fromFen("4k3/8/8/8/8/P7/P7/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(-25 - 2 * 18 + 20, new PawnTable(16).score(white));
+
+        ChessBoard black = ChessGame.fromFen("4k3/p7/p7/8/8/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(25 + 2 * 18 - 20, new PawnTable(16).score(black), "Black's pawns should score the other way");
+
+        //the pawns block each other's files, so neither is passed, but neither is isolated either
+        ChessBoard blocked = ChessGame.fromFen("4k3/8/3pp3/3PP3/8/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, new PawnTable(16).score(blocked));
+    }
+
+    @Test
+    @DisplayName("Cached Scores Match Fresh Ones")
+    public void cached()
+    {
+        PawnTable table = new PawnTable(4); //small enough that positions keep replacing each other
+        for (Perft.Position position : Perft.Position.values())
+        {
+            ChessBoard board = position.toGame().getBoard();
+            int fresh = new PawnTable(16).score(board);
+            Assertions.assertEquals(fresh, table.score(board), position.name());
+            Assertions.assertEquals(fresh, table.score(board), position.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Search Mostly Hits")
+    public void hitRate()
+    {
+        PieceSquareEvaluator evaluator = new PieceSquareEvaluator();
+        new Search(evaluator).search(Perft.Position.KIWIPETE.toGame(), 5, 0, 0);
+        PawnTable table = evaluator.pawns;
+        Assertions.assertTrue(table.hits() > table.probes() * 9 / 10,
+                "Only " + table.hits() + " of " + table.probes() + " pawn probes hit");
+    }
+}
@@ -0,0 +1,103 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne()
+    {
+        //back rank mate with the rook
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, 4, 0, 0);
+
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.getBestMove());
+        Assertions.assertTrue(Search.isMateScore(result.getScore()), "Mate should get a mate score");
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void hangingQueen()
+    {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        ChessMove best = new Search().search(game, 3, 0, 0).getBestMove();
+        Assertions.assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null), best);
+    }
+
+    @Test
+    @DisplayName("Doesn't Walk Into An Exchange")
+    public void quiescence()
+    {
+        //the pawn on d5 is defended, so taking it with the queen loses the queen
+        ChessGame game = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/3Q4/4K3 w - - 0 1");
+        ChessMove best = new Search().search(game, 1, 0, 0).getBestMove();
+        Assertions.assertNotEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null), best);
+    }
+
+    @Test
+    @DisplayName("Stays In Budget")
+    public void budget()
+    {
+        ChessGame game = Perft.Position.KIWIPETE.toGame();
+        ChessBoard before = new ChessBoard(game.getBoard());
+        SearchResult result = new Search().search(game, 0, 0, 5000);
+
+        Assertions.assertNotNull(result.getBestMove(), "Should still have a move when cut off");
+        Assertions.assertTrue(result.getNodes() <= 5000, "Searched past the node budget");
+        Assertions.assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()),
+                "Best move isn't legal");
+        Assertions.assertEquals(before, game.getBoard(), "Searching shouldn't change the game");
+    }
+
+    @Test
+    @DisplayName("No Moves No Answer")
+    public void noMoves()
+    {
+        //black is stalemated
+        ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(game, 3, 0, 0);
+        Assertions.assertNull(result.getBestMove());
+        Assertions.assertEquals(0, result.getScore());
+    }
+
+    @Test
+    @DisplayName("Plays Tablebase Endgames Perfectly")
+    public void tablebase(@TempDir Path directory) throws IOException
+    {
+        new TablebaseGenerator().write("KRK", directory);
+        Tablebase tablebase = Tablebase.open(directory);
+        ChessGame game = ChessGame.fromFen("8/8/3k4/8/8/8/8/R3K3 w - - 0 1");
+        int plies = Tablebase.plies(tablebase.probe(game.getBoard()));
+
+        Search search = new Search();
+        Assertions.assertFalse(Search.isMateScore(search.search(game, 3, 0, 0).getScore()), "The mate is too far off to see");
+        search.setTablebase(tablebase);
+        SearchResult result = search.search(game, 3, 0, 0);
+        Assertions.assertEquals(Search.MATE - plies, result.getScore());
+
+        //the move picked has to be one that keeps to the shortest mate
+        ChessBoard board = new ChessBoard(game.getBoard());
+        board.makeMove(findMove(board, result.getBestMove()));
+        Assertions.assertEquals(-(Tablebase.MATE - (plies - 1)), tablebase.probe(board));
+    }
+
+    private static int findMove(ChessBoard board, ChessMove move)
+    {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, board.getSideToMove(), moves);
+        for (int i = 0; i < moves.size(); i++)
+        {
+            if (PackedMove.matches(moves.get(i), move))
+                return moves.get(i);
+        }
+        throw new AssertionError("not a legal move: " + move);
+    }
+}
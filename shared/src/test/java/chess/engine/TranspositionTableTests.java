@@ -0,0 +1,79 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    private static final int MOVE = PackedMove.encode(12, 28, 0, PackedMove.DOUBLE_PUSH, 5, 12);
+
+    @Test
+    @DisplayName("Stored Entries Come Back")
+    public void storeAndProbe()
+    {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        table.store(key, MOVE, -250, 7, TranspositionTable.LOWER, 3);
+
+        long data = table.probe(key);
+        Assertions.assertNotEquals(0L, data, "Stored position wasn't found");
+        Assertions.assertEquals(MOVE, TranspositionTable.move(data));
+        Assertions.assertEquals(-250, TranspositionTable.score(data, 3));
+        Assertions.assertEquals(7, TranspositionTable.depth(data));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+
+        Assertions.assertEquals(0L, table.probe(key + 1), "A different key shouldn't match");
+        table.clear();
+        Assertions.assertEquals(0L, table.probe(key), "Cleared table still had the entry");
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Relative")
+    public void mateScores()
+    {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L << 32;
+
+        //mate 5 plies from the root, found at ply 2, is mate in 3 from the stored position
+        table.store(key, MOVE, Search.MATE - 5, 3, TranspositionTable.EXACT, 2);
+        Assertions.assertEquals(Search.MATE - 7, TranspositionTable.score(table.probe(key), 4),
+                "Reached at ply 4, the same mate is 7 plies from the root");
+    }
+
+    @Test
+    @DisplayName("Colliding Keys Are Rejected")
+    public void collisions()
+    {
+        TranspositionTable table = new TranspositionTable(1);
+        long first = 7L << 32;
+        long second = first | 99; //same upper bits, so the same slot
+        table.store(first, MOVE, 10, 4, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(0L, table.probe(second), "Another position in the slot shouldn't match");
+
+        table.store(second, MOVE, 20, 4, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(0L, table.probe(first), "The replaced position should be gone");
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(second), 0));
+    }
+
+    @Test
+    @DisplayName("Size Is A Power Of Two")
+    public void sizing()
+    {
+        Assertions.assertEquals(65536, new TranspositionTable(1).capacity());
+        Assertions.assertEquals(131072, new TranspositionTable(3).capacity(), "Should round down to fit the budget");
+    }
+
+    @Test
+    @DisplayName("Shared Table Still Finds Mate")
+    public void sharedSearch()
+    {
+        TranspositionTable table = new TranspositionTable(1);
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        ChessMove mate = new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null);
+        Assertions.assertEquals(mate, new Search(new MaterialEvaluator(), table).search(game, 4, 0, 0).getBestMove());
+        Assertions.assertEquals(mate, new Search(new MaterialEvaluator(), table).search(game, 4, 0, 0).getBestMove(),
+                "Searching again with a warm table should give the same answer");
+    }
+}
@@ -0,0 +1,86 @@
+package chess.json;
+
+import chess.*;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ChessJsonTests {
+
+    private static final Gson GSON = ChessJson.GSON;
+
+    @Test
+    @DisplayName("Boards As FEN")
+    public void boards()
+    {
+        ChessBoard board = ChessGame.fromFen(Fen.START).getBoard();
+        Assertions.assertEquals("\"" + Fen.START + "\"", GSON.toJson(board));
+
+        String kiwipete = Perft.Position.KIWIPETE.getFen();
+        ChessBoard read = GSON.fromJson("\"" + kiwipete + "\"", ChessBoard.class);
+        Assertions.assertEquals(kiwipete, Fen.toString(read));
+        Assertions.assertEquals(ChessGame.fromFen(kiwipete).getBoard().zobristKey(), read.zobristKey());
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("\"not a position\"", ChessBoard.class));
+    }
+
+    @Test
+    @DisplayName("Moves As UCI")
+    public void moves()
+    {
+        ChessMove push = new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null);
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 2), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals("\"e2e4\"", GSON.toJson(push));
+        Assertions.assertEquals("[\"e2e4\",\"b7a8n\"]", GSON.toJson(List.of(push, promotion)));
+        List<ChessMove> read = GSON.fromJson("[\"e2e4\",\"b7a8n\",null]", new TypeToken<List<ChessMove>>() {}.getType());
+        Assertions.assertEquals(push, read.get(0));
+        Assertions.assertEquals(promotion, read.get(1));
+        Assertions.assertNull(read.get(2));
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("\"e2e9\"", ChessMove.class));
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("\"e7e8k\"", ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Games")
+    public void games() throws InvalidMoveException
+    {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        String json = GSON.toJson(game);
+        Assertions.assertEquals("{\"board\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\"}", json);
+
+        ChessGame read = GSON.fromJson("{\"id\":7,\"board\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\"}", ChessGame.class);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, read.getTeamTurn());
+        Assertions.assertEquals(game.getBoard(), read.getBoard());
+        Assertions.assertEquals(game.toFen(), read.toFen());
+        Assertions.assertNull(GSON.fromJson("null", ChessGame.class));
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson("{\"id\":7}", ChessGame.class));
+    }
+
+    //a response holding chess state alongside other fields, the way server messages do
+    record GameMessage(int gameID, ChessGame game, ChessMove lastMove) {}
+
+    @Test
+    @DisplayName("Inside Other Objects")
+    public void nested()
+    {
+        GameMessage message = new GameMessage(3, Perft.Position.ENDGAME.toGame(),
+                new ChessMove(ChessPosition.of(5, 1), ChessPosition.of(6, 1), null));
+        String json = GSON.toJson(message);
+        Assertions.assertEquals("{\"gameID\":3,\"game\":{\"board\":\"" + Perft.Position.ENDGAME.getFen() + "\"},\"lastMove\":\"a5a6\"}", json);
+        GameMessage read = GSON.fromJson(json, GameMessage.class);
+        Assertions.assertEquals(message.gameID(), read.gameID());
+        Assertions.assertEquals(message.game().toFen(), read.game().toFen());
+        Assertions.assertEquals(message.lastMove(), read.lastMove());
+
+        //a builder with other settings can still use the adapters, and reflection writes far more
+        Gson pretty = ChessJson.register(new GsonBuilder().setPrettyPrinting()).create();
+        Assertions.assertTrue(pretty.toJson(message).contains("\"lastMove\": \"a5a6\""));
+        Assertions.assertTrue(new Gson().toJson(Perft.Position.START.toGame()).length() > 10 * GSON.toJson(Perft.Position.START.toGame()).length());
+    }
+}
@@ -0,0 +1,205 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class PgnReaderTests {
+
+    static final String OPERA_GAME = """
+            [Event "Paris"]
+            [Site "Paris FRA"]
+            [Date "1858.??.??"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7
+            8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+            """;
+
+    @TempDir
+    Path directory;
+
+    //the games in some text, each one's tags, plies, result, error and final position written out
+    private static List<String> read(String pgn)
+    {
+        List<String> games = new ArrayList<>();
+        PgnReader.read(ByteBuffer.wrap(pgn.getBytes(StandardCharsets.UTF_8)), game -> games.add(describe(game)));
+        return games;
+    }
+
+    private static String describe(PgnGame game)
+    {
+        return game.getTags() + " " + game.getPlies() + " " + game.getResult() + " " + game.getError() + " " + game.getGame().toFen();
+    }
+
+    @Test
+    @DisplayName("Famous Game")
+    public void operaGame()
+    {
+        List<Long> offsets = new ArrayList<>();
+        long count = PgnReader.read(ByteBuffer.wrap(OPERA_GAME.getBytes(StandardCharsets.UTF_8)), game -> {
+            Assertions.assertEquals("Paul Morphy", game.getTag("White"));
+            Assertions.assertEquals("Duke Karl / Count Isouard", game.getTag("Black"));
+            Assertions.assertEquals(6, game.getTags().size());
+            Assertions.assertEquals(33, game.getPlies());
+            Assertions.assertEquals("1-0", game.getResult());
+            Assertions.assertNull(game.getError());
+            offsets.add(game.getOffset());
+            Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getGame().getTeamTurn());
+            Assertions.assertTrue(game.getGame().isInCheckmate(ChessGame.TeamColor.BLACK));
+            Assertions.assertEquals(ChessPosition.of(2, 5), game.getMove(0).getStartPosition());
+        });
+        Assertions.assertEquals(1, count);
+        Assertions.assertEquals(List.of(0L), offsets);
+    }
+
+    @Test
+    @DisplayName("Special Moves")
+    public void specialMoves()
+    {
+        //en passant, a capture onto the back rank that promotes, and a promotion with no '='
+        List<String> games = read("1. e4 d5 2. e5 f5 3. exf6 Nc6 4. fxg7 Nf6 5. gxh8=Q *\n\n"
+                + "[FEN \"4k3/1P6/8/8/8/8/8/4K3 w - - 0 1\"]\n1. b8N *");
+        Assertions.assertEquals(2, games.size());
+        Assertions.assertEquals("{} 9 * null r1bqkb1Q/ppp1p2p/2n2n2/3p4/8/8/PPPP1PPP/RNBQKBNR b KQq - 0 5", games.get(0));
+        Assertions.assertEquals("{FEN=4k3/1P6/8/8/8/8/8/4K3 w - - 0 1} 1 * null 1N2k3/8/8/8/8/8/8/4K3 b - - 0 1", games.get(1));
+    }
+
+    @Test
+    @DisplayName("Disambiguation")
+    public void disambiguation()
+    {
+        //both knights and both rooks can reach the same squares, so the moves have to say which
+        String fen = "[FEN \"4k3/8/8/8/8/8/4K3/R6R w - - 0 1\"]\n";
+        Assertions.assertTrue(read(fen + "1. Rad1 *").get(0).endsWith("4k3/8/8/8/8/8/4K3/3R3R b - - 1 1"));
+        Assertions.assertTrue(read(fen + "1. Rhf1 *").get(0).endsWith("4k3/8/8/8/8/8/4K3/R4R2 b - - 1 1"));
+        Assertions.assertTrue(read(fen + "1. Rd1 *").get(0).contains("Can't play Rd1"), "Either rook could go there");
+        Assertions.assertTrue(read("1. Nf3 d5 2. Nc3 d4 3. Nb1 *").get(0).contains(" 5 * null"));
+        Assertions.assertTrue(read("[FEN \"4k3/8/8/8/8/1N6/8/1N2K3 w - - 0 1\"]\n1. N3d2 *").get(0)
+                .endsWith("4k3/8/8/8/8/8/3N4/1N2K3 b - - 1 1"));
+    }
+
+    @Test
+    @DisplayName("Comments, Variations And Annotations")
+    public void skippedText()
+    {
+        String pgn = """
+                [Event "Annotated"]
+                % a line for software to ignore
+                1.e4 {the best by test} (1. d4 d5 (1... Nf6 {another (not a variation)}) 2. c4) 1... e5! $1
+                2. Nf3 ; the rest of the line is a comment 2... Nc6
+                Nc6?! 3. Bb5 $14 a6 4. Ba4 Nf6 5. O-O Be7 1/2-1/2
+                """;
+        List<String> games = read(pgn);
+        Assertions.assertEquals(1, games.size());
+        Assertions.assertEquals("{Event=Annotated} 10 1/2-1/2 null r1bqk2r/1pppbppp/p1n2n2/4p3/B3P3/5N2/PPPP1PPP/RNBQ1RK1 w kq - 4 6",
+                games.get(0));
+    }
+
+    @Test
+    @DisplayName("Tags With Escapes")
+    public void escapedTags()
+    {
+        List<String> games = read("[Annotator \"Said \\\"hi\\\" \\\\o/\"]\n[Site \"Zürich\"]\n\n1. d4 *\n");
+        Assertions.assertTrue(games.get(0).startsWith("{Annotator=Said \"hi\" \\o/, Site=Zürich} 1 * null"));
+    }
+
+    @Test
+    @DisplayName("Bad Moves")
+    public void badMoves()
+    {
+        List<String> games = read("""
+                [Round "1"]
+
+                1. e4 e5 2. Ke3 Nc6 3. Nf3 0-1
+
+                [Round "2"]
+
+                1. e4 e5 2. Nf3 Nc6
+
+                [Round "3"]
+                [FEN "not a position"]
+
+                1. e4 *
+
+                [Round "4"]
+
+                1. e4 Xx9 2. d4 *
+                """);
+        Assertions.assertEquals(4, games.size());
+        Assertions.assertEquals("{Round=1} 2 0-1 Can't play Ke3 after 2 plies rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2",
+                games.get(0));
+        Assertions.assertTrue(games.get(1).startsWith("{Round=2} 4 null null"), "No result, but the next game's tags end it");
+        Assertions.assertTrue(games.get(2).contains(" 0 * Bad FEN"));
+        Assertions.assertTrue(games.get(3).startsWith("{Round=4} 1 * Can't play Xx9 after 1 plies"));
+    }
+
+    @Test
+    @DisplayName("Files In Order And In Parallel")
+    public void files() throws IOException
+    {
+        //a file of many games, some with carriage returns, split into chunks small enough that every task has a few
+        StringBuilder pgn = new StringBuilder();
+        for (int round = 0; round < 500; round++)
+        {
+            String game = OPERA_GAME.replace("[Event \"Paris\"]", "[Round \"" + round + "\"]");
+            pgn.append(round % 3 == 0 ? game.replace("\n", "\r\n") : game).append(round % 3 == 0 ? "\r\n" : "\n");
+        }
+        Path file = directory.resolve("games.pgn");
+        Files.writeString(file, pgn);
+
+        List<String> inOrder = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        Assertions.assertEquals(500, PgnReader.read(file, game -> {
+            inOrder.add(game.getTag("Round") + " " + game.getPlies() + " " + game.getResult() + " " + game.getError());
+            offsets.add(game.getOffset());
+        }));
+        Assertions.assertEquals("0 33 1-0 null", inOrder.get(0));
+        Assertions.assertEquals("499 33 1-0 null", inOrder.get(499));
+        Assertions.assertEquals(pgn.indexOf("[Round \"7\"]"), offsets.get(7).longValue());
+
+        List<String> parallel = Collections.synchronizedList(new ArrayList<>());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assertions.assertEquals(500, PgnReader.readParallel(file, pool, game ->
+                    parallel.add(game.getTag("Round") + " " + game.getPlies() + " " + game.getResult() + " " + game.getError()), 10_000));
+        } finally {
+            pool.shutdown();
+        }
+        Collections.sort(parallel);
+        List<String> sorted = new ArrayList<>(inOrder);
+        Collections.sort(sorted);
+        Assertions.assertEquals(sorted, parallel);
+    }
+
+    @Test
+    @DisplayName("Split At Game Boundaries")
+    public void split() throws IOException
+    {
+        Path file = directory.resolve("split.pgn");
+        Files.writeString(file, OPERA_GAME + "\n" + OPERA_GAME + "\n" + OPERA_GAME);
+        try (FileChannel channel = FileChannel.open(file)) {
+            long[] bounds = PgnReader.split(channel, 10);
+            long length = OPERA_GAME.length() + 1;
+            Assertions.assertArrayEquals(new long[]{0, length, 2 * length, channel.size()}, bounds);
+            Assertions.assertArrayEquals(new long[]{0, channel.size()}, PgnReader.split(channel, channel.size()));
+        }
+    }
+}
@@ -346,4 +346,35 @@ public class EnPassantTests {
                 "ChessGame validMoves contained a En Passant move after the move became invalid");
     }
 
+
+    @Test
+    @DisplayName("Only the Side to Move Can En Passant")
+    public void enPassantOnlyOnTurn() throws InvalidMoveException {
+
+        /*
+        |r|n|b|q|k|b|n|r|
+		|p|p|p|p|p|p|p|p|
+		| | | | | | | | |
+		| | | | | | | | |
+		| | | | |P| | | |
+		| | | | | | | | |
+		|P|P|P|P| |P|P|P|
+		|R|N|B|Q|K|B|N|R|
+         */
+
+        chessBoard.resetBoard();
+        ChessGame game = TestFactory.getNewGame();
+        game.setBoard(chessBoard);
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        //white double moves, leaving e3 behind the pawn with black to move
+        game.makeMove(TestFactory.getNewMove(TestFactory.getNewPosition(2, 5), TestFactory.getNewPosition(4, 5), null));
+
+        //white's own pawn next door can't take on e3, there's nothing there and it isn't white's turn
+        ChessPosition position = TestFactory.getNewPosition(2, 4);
+        Assertions.assertFalse(game.validMoves(position).contains(
+                TestFactory.getNewMove(position, TestFactory.getNewPosition(3, 5), null)),
+                "ChessGame validMoves contained an En Passant move for the team not moving");
+    }
+
 }